@@ -0,0 +1,150 @@
+package Env;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import minijava.syntaxtree.ArrayLength;
+import minijava.syntaxtree.AssignmentStatement;
+import minijava.syntaxtree.Block;
+import minijava.syntaxtree.BracketExpression;
+import minijava.syntaxtree.CompareExpression;
+import minijava.syntaxtree.Expression;
+import minijava.syntaxtree.Identifier;
+import minijava.syntaxtree.IntegerLiteral;
+import minijava.syntaxtree.MessageSend;
+import minijava.syntaxtree.Node;
+import minijava.syntaxtree.PrimaryExpression;
+import minijava.syntaxtree.Statement;
+import minijava.syntaxtree.WhileStatement;
+import minijava.visitor.DepthFirstVisitor;
+
+/**
+ * Syntactic facts used by the check eliminations in TranslationVisitor.
+ * Recognizes loops of the form while (i < (a.length)) whose body leaves i and a
+ * alone until its last statement, so every a[i] inside the body is below a.length.
+ */
+class ArrayLoopAnalysis {
+
+    private ArrayLoopAnalysis() {
+    }
+
+    // collects every assigned name in a subtree and whether it makes any call
+    private static class Writes extends DepthFirstVisitor {
+        final HashSet<String> assigned = new HashSet<>();
+        boolean calls = false;
+
+        @Override
+        public void visit(AssignmentStatement n) {
+            this.assigned.add(n.f0.f0.toString());
+            super.visit(n);
+        }
+
+        @Override
+        public void visit(MessageSend n) {
+            this.calls = true;
+            super.visit(n);
+        }
+    }
+
+    /**
+     * Strips Expression, PrimaryExpression and bracket wrappers.
+     */
+    static Node unwrap(Node node) {
+        while (true) {
+            if (node instanceof Expression) {
+                node = ((Expression) node).f0.choice;
+            } else if (node instanceof PrimaryExpression) {
+                node = ((PrimaryExpression) node).f0.choice;
+            } else if (node instanceof BracketExpression) {
+                node = ((BracketExpression) node).f1;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    static String identifierName(Node node) {
+        node = unwrap(node);
+        return node instanceof Identifier ? ((Identifier) node).f0.toString() : null;
+    }
+
+    static boolean isNonNegativeLiteral(Node node) {
+        node = unwrap(node);
+        if (!(node instanceof IntegerLiteral)) return false;
+        try {
+            return Integer.parseInt(((IntegerLiteral) node).f0.toString()) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Every name a statement (or any statement nested in it) assigns to.
+     */
+    static Set<String> assignedNames(Node node) {
+        Writes writes = new Writes();
+        node.accept(writes);
+        return writes.assigned;
+    }
+
+    static String accessKey(String array, String index) {
+        return array + "[" + index + "]";
+    }
+
+    /**
+     * Returns the accessKey of the a[i] pair the loop condition keeps in bounds,
+     * or null when the loop does not have the canonical shape. Names that were
+     * renamed away from reserved registers are left alone.
+     */
+    static String guardedAccess(WhileStatement loop, MethodScope scope, Map<String, String> renamed) {
+        Node condition = unwrap(loop.f2);
+        if (!(condition instanceof CompareExpression)) return null;
+        CompareExpression compare = (CompareExpression) condition;
+
+        String index = identifierName(compare.f0);
+        Node bound = unwrap(compare.f2);
+        if (index == null || !(bound instanceof ArrayLength)) return null;
+        String array = identifierName(((ArrayLength) bound).f0);
+        if (array == null || array.equals(index)) return null;
+
+        Binding indexBinding = scope.lookup(index);
+        Binding arrayBinding = scope.lookup(array);
+        if (indexBinding == null || arrayBinding == null) return null;
+        if (renamed.containsKey(index) || renamed.containsKey(array)) return null;
+
+        // everything but the last statement must leave i and a untouched;
+        // the last one may only be a plain assignment, whose right side runs first
+        List<Node> statements = statementsOf(loop.f4);
+        Writes writes = new Writes();
+        for (int i = 0; i < statements.size() - 1; i++) {
+            statements.get(i).accept(writes);
+        }
+        if (writes.assigned.contains(index) || writes.assigned.contains(array)) return null;
+
+        if (!statements.isEmpty()) {
+            Node last = statements.get(statements.size() - 1);
+            Node lastStatement = last instanceof Statement ? ((Statement) last).f0.choice : last;
+            if (lastStatement instanceof AssignmentStatement) {
+                ((AssignmentStatement) lastStatement).f2.accept(writes);
+            } else {
+                last.accept(writes);
+                if (writes.assigned.contains(index) || writes.assigned.contains(array)) return null;
+            }
+        }
+
+        // a call can rewrite fields behind our back
+        if (writes.calls && (indexBinding.isField() || arrayBinding.isField())) return null;
+
+        return accessKey(array, index);
+    }
+
+    private static List<Node> statementsOf(Statement body) {
+        Node choice = body.f0.choice;
+        if (choice instanceof Block) {
+            return ((Block) choice).f1.nodes;
+        }
+        return List.of(body);
+    }
+}
@@ -0,0 +1,34 @@
+package Env;
+
+/**
+ * What a name used inside a method body resolves to.
+ */
+public class Binding {
+    public enum Kind { LOCAL, PARAMETER, FIELD }
+
+    public final Kind kind;
+    public final String type;
+    public final int offset; // byte offset in the object for fields, -1 otherwise
+
+    private Binding(Kind kind, String type, int offset) {
+        this.kind = kind;
+        this.type = type;
+        this.offset = offset;
+    }
+
+    public static Binding local(String type) {
+        return new Binding(Kind.LOCAL, type, -1);
+    }
+
+    public static Binding parameter(String type) {
+        return new Binding(Kind.PARAMETER, type, -1);
+    }
+
+    public static Binding field(String type, int offset) {
+        return new Binding(Kind.FIELD, type, offset);
+    }
+
+    public boolean isField() {
+        return this.kind == Kind.FIELD;
+    }
+}
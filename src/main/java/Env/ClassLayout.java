@@ -0,0 +1,74 @@
+package Env;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flattened, read-only view of a class as the generated code sees it:
+ * every visible field with its offset, every vtable slot with its label, and the object size.
+ * Built once per class after buildVtable and buildFieldOffsets.
+ */
+public final class ClassLayout {
+    private final Map<String, Binding> fields;
+    private final Map<String, Integer> methodOffsets;
+    private final List<String> vtable;
+    private final int objectSize;
+
+    private ClassLayout(Map<String, Binding> fields, Map<String, Integer> methodOffsets, List<String> vtable, int objectSize) {
+        this.fields = Collections.unmodifiableMap(fields);
+        this.methodOffsets = Collections.unmodifiableMap(methodOffsets);
+        this.vtable = Collections.unmodifiableList(vtable);
+        this.objectSize = objectSize;
+    }
+
+    static ClassLayout of(MiniJavaClass cls) {
+        // nearest declaration wins when a subclass redeclares a field
+        HashMap<String, Binding> fields = new HashMap<>();
+        for (MiniJavaClass current = cls; current != null; current = current.getParent()) {
+            for (Variable field : current.fields) {
+                if (!fields.containsKey(field.name)) {
+                    Integer offset = current.fieldOffsets.get(current.getName() + "_" + field.name);
+                    fields.put(field.name, Binding.field(field.type, offset == null ? -1 : offset));
+                }
+            }
+        }
+
+        int objectSize = 4 + cls.fieldOffsets.size() * 4;
+        return new ClassLayout(fields, new HashMap<>(cls.vtableIndices), new ArrayList<>(cls.vtable), objectSize);
+    }
+
+    public Map<String, Binding> getFields() {
+        return this.fields;
+    }
+
+    public Binding getField(String name) {
+        return this.fields.get(name);
+    }
+
+    public boolean hasMethod(String name) {
+        return this.methodOffsets.containsKey(name);
+    }
+
+    // byte offset of the method's slot in the vtable, or -1
+    public int getMethodOffset(String name) {
+        Integer offset = this.methodOffsets.get(name);
+        return offset == null ? -1 : offset;
+    }
+
+    public String getMethodLabel(String name) {
+        int offset = getMethodOffset(name);
+        return offset == -1 ? null : this.vtable.get(offset / 4);
+    }
+
+    public List<String> getVtable() {
+        return this.vtable;
+    }
+
+    // header word plus one word per field, inherited ones included
+    public int getObjectSize() {
+        return this.objectSize;
+    }
+}
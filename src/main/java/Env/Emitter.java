@@ -0,0 +1,68 @@
+package Env;
+
+import java.util.List;
+
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import sparrow.Instruction;
+
+/**
+ * Sink for the Sparrow produced by TranslationVisitor.
+ * Each function arrives as beginFunction, its instruction nodes and emitReturn;
+ * text sinks print them as lines. The translator calls endFunction after each
+ * function's return and endProgram after the last function.
+ */
+public abstract class Emitter {
+
+    private static volatile String[] indents = new String[] { "" };
+
+    /**
+     * Returns the cached indentation string for a level.
+     */
+    protected static String indent(int level) {
+        if (level < 0) {
+            level = 0;
+        }
+        String[] cache = indents;
+        if (level >= cache.length) {
+            cache = new String[Math.max(level + 1, cache.length * 2)];
+            for (int i = 0; i < cache.length; i++) {
+                cache[i] = new String(new char[i * 2]).replace('\0', ' ');
+            }
+            indents = cache;
+        }
+        return cache[level];
+    }
+
+    public abstract void emit(int indentLevel, String line);
+
+    // text sinks print the instruction; sinks that keep nodes override this
+    public void emit(int indentLevel, Instruction instr) {
+        this.emit(indentLevel, instr.toString());
+    }
+
+    // text sinks print the func line
+    public void beginFunction(FunctionName name, List<Identifier> parameters) {
+        StringBuilder line = new StringBuilder("func ").append(name).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) line.append(' ');
+            line.append(parameters.get(i));
+        }
+        this.emit(0, line.append(')').toString());
+    }
+
+    // text sinks print the return line
+    public void emitReturn(int indentLevel, Identifier returnId) {
+        this.emit(indentLevel, "return " + returnId);
+    }
+
+    public void endFunction() {
+    }
+
+    // called once after the last function
+    public void endProgram() {
+    }
+
+    public void close() {
+    }
+}
@@ -0,0 +1,77 @@
+package Env;
+
+import java.util.List;
+
+import Flow.Inliner;
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import sparrow.FunctionDecl;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+
+/**
+ * Holds back the whole program, since a call may come before its callee, runs
+ * Flow.Inliner over it once the translator signals the end and then passes the
+ * functions on one by one.
+ */
+public class InliningEmitter extends Emitter {
+    private final Emitter target;
+    private final OptimizationReport report;
+    private final int maxSize;
+    private final int budget;
+    private final ProgramEmitter program = new ProgramEmitter();
+
+    public InliningEmitter(Emitter target, OptimizationReport report, int maxSize, int budget) {
+        this.target = target;
+        this.report = report;
+        this.maxSize = maxSize;
+        this.budget = budget;
+    }
+
+    @Override
+    public void emit(int indentLevel, String line) {
+        this.program.emit(indentLevel, line);
+    }
+
+    @Override
+    public void beginFunction(FunctionName name, List<Identifier> parameters) {
+        this.program.beginFunction(name, parameters);
+    }
+
+    @Override
+    public void emit(int indentLevel, Instruction instr) {
+        this.program.emit(indentLevel, instr);
+    }
+
+    @Override
+    public void emitReturn(int indentLevel, Identifier returnId) {
+        this.program.emitReturn(indentLevel, returnId);
+    }
+
+    @Override
+    public void endProgram() {
+        sparrow.Program program = this.program.getProgram();
+        Inliner inliner = new Inliner(program, this.maxSize, this.budget);
+        inliner.run();
+
+        for (FunctionDecl function : program.funDecls) {
+            String name = function.functionName.toString();
+            if (inliner.getInlined(name) > 0) {
+                this.report.add(name, "calls inlined", inliner.getInlined(name));
+                this.report.add(name, "inlining size change", inliner.getGrowth(name));
+            }
+            this.target.beginFunction(function.functionName, function.formalParameters);
+            for (Instruction instr : function.block.instructions) {
+                this.target.emit(instr instanceof LabelInstr ? 0 : 1, instr);
+            }
+            this.target.emitReturn(1, function.block.return_id);
+            this.target.endFunction();
+        }
+        this.target.endProgram();
+    }
+
+    @Override
+    public void close() {
+        this.target.close();
+    }
+}
@@ -0,0 +1,19 @@
+package Env;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps every emitted line in memory, one String per line.
+ */
+public class ListEmitter extends Emitter {
+    private final ArrayList<String> lines = new ArrayList<>();
+
+    @Override
+    public void emit(int indentLevel, String line) {
+        this.lines.add(indent(indentLevel) + line);
+    }
+
+    public ArrayList<String> getLines() {
+        return this.lines;
+    }
+}
@@ -0,0 +1,100 @@
+package Env;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import Flow.LoadElimination;
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import sparrow.Instruction;
+
+/**
+ * Holds back the instructions of each function and runs Flow.LoadElimination
+ * over them once its return arrives, then passes the result on. Rewritten
+ * instructions keep the indentation of the one they replace.
+ */
+public class LoadEliminationEmitter extends Emitter {
+    private final Emitter target;
+    private final OptimizationReport report;
+    private FunctionName name = null;
+    private List<Identifier> parameters;
+    private final List<Instruction> code = new ArrayList<>();
+    private final IdentityHashMap<Instruction, Integer> indentOf = new IdentityHashMap<>();
+
+    public LoadEliminationEmitter(Emitter target, OptimizationReport report) {
+        this.target = target;
+        this.report = report;
+    }
+
+    @Override
+    public void emit(int indentLevel, String line) {
+        this.passThrough();
+        this.target.emit(indentLevel, line);
+    }
+
+    @Override
+    public void beginFunction(FunctionName name, List<Identifier> parameters) {
+        this.passThrough();
+        this.name = name;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public void emit(int indentLevel, Instruction instr) {
+        this.code.add(instr);
+        this.indentOf.put(instr, indentLevel);
+    }
+
+    @Override
+    public void emitReturn(int indentLevel, Identifier returnId) {
+        if (this.name != null) this.optimize(returnId);
+        this.passThrough();
+        this.target.emitReturn(indentLevel, returnId);
+    }
+
+    @Override
+    public void endFunction() {
+        this.passThrough();
+        this.target.endFunction();
+    }
+
+    @Override
+    public void endProgram() {
+        this.target.endProgram();
+    }
+
+    @Override
+    public void close() {
+        this.passThrough();
+        this.target.close();
+    }
+
+    private void optimize(Identifier returnId) {
+        LoadElimination pass = new LoadElimination(this.parameters, this.code, returnId);
+        List<Instruction> optimized = pass.run();
+
+        String function = this.name.toString();
+        this.report.add(function, "loads hoisted", pass.getHoisted());
+        this.report.add(function, "loads removed", pass.getRemoved());
+
+        this.target.beginFunction(this.name, this.parameters);
+        int indent = 1;
+        for (Instruction instr : optimized) {
+            indent = this.indentOf.getOrDefault(instr, indent);
+            this.target.emit(indent, instr);
+        }
+        this.name = null;
+        this.code.clear();
+        this.indentOf.clear();
+    }
+
+    // anything held that is not a whole function goes on as it came
+    private void passThrough() {
+        if (this.name != null) this.target.beginFunction(this.name, this.parameters);
+        for (Instruction instr : this.code) this.target.emit(this.indentOf.get(instr), instr);
+        this.name = null;
+        this.code.clear();
+        this.indentOf.clear();
+    }
+}
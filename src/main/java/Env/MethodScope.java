@@ -0,0 +1,36 @@
+package Env;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Name → Binding for one method body, built once per method.
+ * Locals shadow parameters, which shadow the fields of the class and its parents.
+ */
+public class MethodScope {
+    private final MiniJavaClass owner;
+    private final HashMap<String, Binding> bindings = new HashMap<>();
+
+    public MethodScope(MiniJavaClass cls, MiniJavaMethod method) {
+        this.owner = cls;
+        for (Variable v : method.localVars) {
+            this.bindings.putIfAbsent(v.name, Binding.local(v.type));
+        }
+        for (Variable p : method.parameters) {
+            this.bindings.putIfAbsent(p.name, Binding.parameter(p.type));
+        }
+        if (cls != null) {
+            for (Map.Entry<String, Binding> field : cls.getLayout().getFields().entrySet()) {
+                this.bindings.putIfAbsent(field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    public MiniJavaClass getOwner() {
+        return this.owner;
+    }
+
+    public Binding lookup(String name) {
+        return this.bindings.get(name);
+    }
+}
@@ -28,6 +28,9 @@ public class MiniJavaClass {
     public HashMap<String, Integer> fieldOffsets = new HashMap<String, Integer>();
     public boolean main = false;
 
+    private final HashMap<String, Variable> fieldIndex = new HashMap<String, Variable>(); // own fields by name
+    private ClassLayout layout = null;
+
 
     public MiniJavaClass(String name){
         this.methods = new HashMap<String, MiniJavaMethod>();
@@ -65,22 +68,24 @@ public class MiniJavaClass {
 
     public boolean addField(Variable var) {
 
-        for (Variable existing : this.fields) {
-            if (existing.name.equals(var.name)) {
-                return false; // Duplicate name, don't add
-            }
+        if (this.fieldIndex.containsKey(var.name)) {
+            return false; // Duplicate name, don't add
         }
+        this.fieldIndex.put(var.name, var);
         this.fields.add(var);
         return true; // Successfully added
     }
 
     public String getFieldType(String fieldName) {
+        if (this.layout != null) {
+            Binding field = this.layout.getField(fieldName);
+            return field == null ? null : field.type;
+        }
         MiniJavaClass current = this;
         while (current != null) {
-            for (Variable field : current.fields) {
-                if (field.name.equals(fieldName)) {
-                    return field.type;
-                }
+            Variable field = current.fieldIndex.get(fieldName);
+            if (field != null) {
+                return field.type;
             }
             current = current.getParent();
         }
@@ -88,6 +93,10 @@ public class MiniJavaClass {
     }
     
     public int getFieldOffset(String fieldName) {
+        if (this.layout != null) {
+            Binding field = this.layout.getField(fieldName);
+            return field == null ? -1 : field.offset;
+        }
         MiniJavaClass current = this;
         while (current != null) {
             String mangled = current.getName() + "_" + fieldName;
@@ -100,6 +109,25 @@ public class MiniJavaClass {
         return -1;
     }    
 
+    /**
+     * Freezes the vtable and field offsets into a ClassLayout.
+     * Call after buildVtable and buildFieldOffsets; later calls are no-ops.
+     */
+    public void buildLayout() {
+        if (this.layout != null) return;
+        if (this.parent != null) {
+            this.parent.buildLayout();
+        }
+        this.layout = ClassLayout.of(this);
+    }
+
+    public ClassLayout getLayout() {
+        if (this.layout == null) {
+            throw new IllegalStateException("Layout of " + this.className + " not built yet");
+        }
+        return this.layout;
+    }
+
     public MiniJavaMethod getMethod(String methodName){
         return this.methods.get(methodName);
     }
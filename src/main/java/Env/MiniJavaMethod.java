@@ -13,6 +13,10 @@ public class MiniJavaMethod {
     public final HashMap<String, String> renamedParams = new HashMap<>();
     public final HashMap<String, String> tempVarTypes = new HashMap<>();
 
+    // name → first declaration, kept in step with parameters/localVars
+    private final HashMap<String, Variable> parameterIndex = new HashMap<>();
+    private final HashMap<String, Variable> localVarIndex = new HashMap<>();
+
     public MiniJavaMethod(String name, Variable returnType){
         this.parameters = new LinkedHashSet<Variable>();
         this.localVars = new LinkedHashSet<Variable>();
@@ -28,22 +32,30 @@ public class MiniJavaMethod {
         return returnType;
     }
 
+    public boolean addParameter(Variable param){
+        this.parameterIndex.putIfAbsent(param.name, param);
+        return this.parameters.add(param);
+    }
+
+    public boolean addLocalVar(Variable var){
+        this.localVarIndex.putIfAbsent(var.name, var);
+        return this.localVars.add(var);
+    }
+
+    public Variable getParameter(String name){
+        return this.parameterIndex.get(name);
+    }
+
+    public Variable getLocalVar(String name){
+        return this.localVarIndex.get(name);
+    }
+
     public boolean hasParameter(Variable param){
-        for (Variable trav : this.parameters){
-            if (trav.name.equals(param.name)){
-                return true;
-            }
-        }
-        return false;
+        return this.parameterIndex.containsKey(param.name);
     }
 
     public boolean hasLocalvar(Variable var){
-        for (Variable trav : this.localVars){
-            if (trav.name.equals(var.name)){
-                return true;
-            }
-        }
-        return false;
+        return this.localVarIndex.containsKey(var.name);
     }
 
     public void print(){
@@ -0,0 +1,58 @@
+package Env;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-function counters collected by the optional translation passes,
+ * e.g. how many bounds checks were removed from each method.
+ */
+public class OptimizationReport {
+    private final LinkedHashMap<String, LinkedHashMap<String, Integer>> counts = new LinkedHashMap<>();
+
+    public void add(String function, String counter, int amount) {
+        this.counts.computeIfAbsent(function, f -> new LinkedHashMap<>()).merge(counter, amount, Integer::sum);
+    }
+
+    public int get(String function, String counter) {
+        Map<String, Integer> functionCounts = this.counts.get(function);
+        if (functionCounts == null) return 0;
+        return functionCounts.getOrDefault(counter, 0);
+    }
+
+    public LinkedHashMap<String, Integer> totals() {
+        LinkedHashMap<String, Integer> totals = new LinkedHashMap<>();
+        for (Map<String, Integer> functionCounts : this.counts.values()) {
+            for (Map.Entry<String, Integer> count : functionCounts.entrySet()) {
+                totals.merge(count.getKey(), count.getValue(), Integer::sum);
+            }
+        }
+        return totals;
+    }
+
+    public boolean isEmpty() {
+        return this.counts.isEmpty();
+    }
+
+    // one line per function, then the totals
+    public void print(PrintStream out) {
+        for (Map.Entry<String, LinkedHashMap<String, Integer>> function : this.counts.entrySet()) {
+            out.println(function.getKey() + ": " + format(function.getValue()));
+        }
+        out.println("total: " + format(totals()));
+    }
+
+    public String summary() {
+        return format(totals());
+    }
+
+    private static String format(Map<String, Integer> counters) {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<String, Integer> count : counters.entrySet()) {
+            if (line.length() > 0) line.append(", ");
+            line.append(count.getKey()).append('=').append(count.getValue());
+        }
+        return line.toString();
+    }
+}
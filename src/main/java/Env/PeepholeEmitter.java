@@ -0,0 +1,96 @@
+package Env;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import Flow.Peephole;
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import sparrow.Instruction;
+
+/**
+ * Holds back the instructions of each function and runs Flow.Peephole over
+ * them once its return arrives, then hands the shorter function to the wrapped
+ * emitter. Rewritten instructions keep the indentation of the one they replace.
+ */
+public class PeepholeEmitter extends Emitter {
+    private final Emitter target;
+    private final OptimizationReport report;
+    private FunctionName name = null;
+    private List<Identifier> parameters;
+    private final List<Integer> indents = new ArrayList<>();
+    private final List<Instruction> code = new ArrayList<>();
+
+    public PeepholeEmitter(Emitter target, OptimizationReport report) {
+        this.target = target;
+        this.report = report;
+    }
+
+    @Override
+    public void emit(int indentLevel, String line) {
+        this.passThrough();
+        this.target.emit(indentLevel, line);
+    }
+
+    @Override
+    public void beginFunction(FunctionName name, List<Identifier> parameters) {
+        this.passThrough();
+        this.name = name;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public void emit(int indentLevel, Instruction instr) {
+        this.indents.add(indentLevel);
+        this.code.add(instr);
+    }
+
+    @Override
+    public void emitReturn(int indentLevel, Identifier returnId) {
+        if (this.name != null) returnId = this.optimize(returnId);
+        this.passThrough();
+        this.target.emitReturn(indentLevel, returnId);
+    }
+
+    @Override
+    public void endFunction() {
+        this.passThrough();
+        this.target.endFunction();
+    }
+
+    @Override
+    public void endProgram() {
+        this.target.endProgram();
+    }
+
+    @Override
+    public void close() {
+        this.passThrough();
+        this.target.close();
+    }
+
+    // writes the optimized body and returns what the function now returns
+    private Identifier optimize(Identifier returnId) {
+        Peephole pass = new Peephole(this.code, returnId);
+        List<Instruction> optimized = pass.run();
+        this.report.add(this.name.toString(), "peephole instructions removed", pass.getRemoved());
+
+        this.target.beginFunction(this.name, this.parameters);
+        for (int i = 0; i < optimized.size(); i++) {
+            if (optimized.get(i) != null) this.target.emit(this.indents.get(i), optimized.get(i));
+        }
+        this.name = null;
+        this.indents.clear();
+        this.code.clear();
+        return pass.getReturnId();
+    }
+
+    // anything held that is not a whole function goes on as it came
+    private void passThrough() {
+        if (this.name != null) this.target.beginFunction(this.name, this.parameters);
+        for (int i = 0; i < this.code.size(); i++) this.target.emit(this.indents.get(i), this.code.get(i));
+        this.name = null;
+        this.indents.clear();
+        this.code.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package Env;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import sparrow.visitor.SetParents;
+
+/**
+ * Builds a sparrow.Program from the emitted functions and their instruction
+ * nodes, so translation can hand the program to later passes in the same JVM
+ * without printing it and parsing it back.
+ */
+public class ProgramEmitter extends Emitter {
+    private final List<sparrow.FunctionDecl> functions = new ArrayList<>();
+    private FunctionName name;
+    private List<Identifier> parameters;
+    private List<sparrow.Instruction> instructions;
+
+    @Override
+    public void emit(int indentLevel, String line) {
+        throw new IllegalStateException("Expected an instruction node, not the text " + line.trim());
+    }
+
+    @Override
+    public void beginFunction(FunctionName name, List<Identifier> parameters) {
+        this.name = name;
+        this.parameters = new ArrayList<>(parameters);
+        this.instructions = new ArrayList<>();
+    }
+
+    @Override
+    public void emit(int indentLevel, sparrow.Instruction instr) {
+        this.instructions.add(instr);
+    }
+
+    @Override
+    public void emitReturn(int indentLevel, Identifier returnId) {
+        sparrow.Block block = new sparrow.Block(this.instructions, returnId);
+        this.functions.add(new sparrow.FunctionDecl(this.name, this.parameters, block));
+    }
+
+    public sparrow.Program getProgram() {
+        sparrow.Program program = new sparrow.Program(this.functions);
+        program.accept(new SetParents());
+        return program;
+    }
+}
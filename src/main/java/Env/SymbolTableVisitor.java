@@ -72,7 +72,7 @@ public class SymbolTableVisitor extends GJDepthFirst<Void, Void>  {
         //define main method and main parameter
         Variable mainParameter = new Variable(n.f11.f0.toString(), "");
         MiniJavaMethod mainMethod = new MiniJavaMethod("main", new Variable("", ""));
-        mainMethod.parameters.add(mainParameter);
+        mainMethod.addParameter(mainParameter);
 
         _class.addMethod(mainMethod);
 
@@ -167,12 +167,10 @@ public class SymbolTableVisitor extends GJDepthFirst<Void, Void>  {
 
         if (currentMethod != null) {
             // Check for parameter shadowing
-            for (Variable param : currentMethod.parameters) {
-                if (param.name.equals(varName)) {
-                    throw new RuntimeException("Variable '" + varName + "' cannot shadow method parameter");
-                }
+            if (currentMethod.hasParameter(var)) {
+                throw new RuntimeException("Variable '" + varName + "' cannot shadow method parameter");
             }
-            if (!currentMethod.localVars.add(var)) {
+            if (!currentMethod.addLocalVar(var)) {
                 throw new RuntimeException("Duplicate local variable: " + varName);
             }
         } else {
@@ -225,7 +223,7 @@ public class SymbolTableVisitor extends GJDepthFirst<Void, Void>  {
 
         // get current method and try to add parameter
         MiniJavaMethod method = this.currentClass.currentMethod;
-        if (!method.parameters.add(typeParam)){
+        if (!method.addParameter(typeParam)){
             throw new RuntimeException("Duplicate Parameter: " + typeParam.name);
         }
 
@@ -0,0 +1,97 @@
+package Env;
+
+/**
+ * Code generation switches for TranslationVisitor.
+ * Everything is off by default so the plain translation stays the reference output.
+ */
+public class TranslationOptions {
+
+    // build every vtable once in Main instead of on each allocation
+    public boolean sharedVtables = false;
+
+    // drop array bounds checks that loop conditions or literal indices already prove
+    public boolean boundsCheckElim = false;
+
+    // skip null checks on this, fresh allocations and pointers checked earlier on every path
+    public boolean nullCheckElim = false;
+
+    // call @Class_method directly when no subclass overrides it
+    public boolean devirtualize = false;
+
+    // jump on if and while conditions instead of building 0/1 temps, and test loops at the bottom
+    public boolean branchConditions = false;
+
+    // send every null or bounds check of a function to one error block per kind, placed out of line
+    public boolean sharedErrorBlocks = false;
+
+    // reuse field and array-length loads still available and hoist loop-invariant ones
+    public boolean loadElim = false;
+
+    // splice direct calls to leaf methods of at most this many instructions into the caller, 0 for none
+    public int inlineSize = 0;
+
+    // instructions inlining may add to any one function
+    public int inlineBudget = 200;
+
+    // run PeepholeEmitter over every function before it is written
+    public boolean peephole = false;
+
+    // print the per-function OptimizationReport to stderr
+    public boolean report = false;
+
+    public TranslationOptions(){
+    }
+
+    /**
+     * Picks the known "--flag" switches out of the command line.
+     * Arguments that are not flags are left for the caller.
+     */
+    public static TranslationOptions fromArgs(String[] args){
+        TranslationOptions options = new TranslationOptions();
+        for (String arg : args){
+            if (!arg.startsWith("--")){
+                continue;
+            }
+            if (arg.startsWith("--inline=")){
+                options.inlineSize = Integer.parseInt(arg.substring("--inline=".length()));
+                continue;
+            }
+            if (arg.startsWith("--inline-budget=")){
+                options.inlineBudget = Integer.parseInt(arg.substring("--inline-budget=".length()));
+                continue;
+            }
+            switch (arg) {
+                case "--shared-vtables":
+                    options.sharedVtables = true;
+                    break;
+                case "--bounds-check-elim":
+                    options.boundsCheckElim = true;
+                    break;
+                case "--null-check-elim":
+                    options.nullCheckElim = true;
+                    break;
+                case "--devirtualize":
+                    options.devirtualize = true;
+                    break;
+                case "--branch-conditions":
+                    options.branchConditions = true;
+                    break;
+                case "--shared-error-blocks":
+                    options.sharedErrorBlocks = true;
+                    break;
+                case "--load-elim":
+                    options.loadElim = true;
+                    break;
+                case "--peephole":
+                    options.peephole = true;
+                    break;
+                case "--report":
+                    options.report = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+}
@@ -3,8 +3,13 @@ package Env;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 
+import IR.token.FunctionName;
+import IR.token.Label;
 import minijava.syntaxtree.AllocationExpression;
 import minijava.syntaxtree.AndExpression;
 import minijava.syntaxtree.ArrayAllocationExpression;
@@ -38,12 +43,32 @@ import minijava.syntaxtree.TimesExpression;
 import minijava.syntaxtree.TrueLiteral;
 import minijava.syntaxtree.VarDeclaration;
 import minijava.syntaxtree.WhileStatement;
+import minijava.visitor.DepthFirstVisitor;
 import minijava.visitor.GJDepthFirst;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Store;
+import sparrow.Subtract;
 
 public class TranslationVisitor extends GJDepthFirst<String, Void>{
 
     private final SymbolTable table;
-    private final ArrayList<String> lines;
+    private final TranslationOptions options;
+    private final Emitter emitter;
+    private final Emitter sink;
     MiniJavaClass currentClass = null;
     MiniJavaMethod currentMethod = null;
     private int tempCounter = 0;
@@ -53,23 +78,108 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
 
     private final HashMap<String, String> tempVarTypes = new HashMap<>();
     private final HashMap<String, String> staticTypes = new HashMap<>();
+    private final HashMap<MiniJavaMethod, MethodScope> scopes = new HashMap<>();
+
+    // Main's pointer to the shared vtables; a MiniJava keyword, so no user name can clash with it
+    private static final String VTABLE_TABLE = "class";
+    // shared vtable layout: class name → slice index in the table
+    private final HashMap<String, Integer> classIndices = new HashMap<>();
+    // classes some method allocates → slot, after the methods, of the pointer to their slice
+    private final HashMap<String, Integer> slicePointers = new HashMap<>();
+    private Set<String> allocatedInMethods = new HashSet<>();
+    private int vtableMethodSlots = 0;
+    private int vtableStride = 0;
+
+    // a[i] pairs whose index the enclosing loop conditions keep below a.length
+    private final List<String> guardedAccesses = new ArrayList<>();
+    // class.method → the one label every subclass dispatches to, "" when overridden
+    private final HashMap<String, String> directTargets = new HashMap<>();
+    // names known to hold a non-null pointer at the current point of the function
+    private HashSet<String> nonNull = new HashSet<>();
+    private final OptimizationReport report = new OptimizationReport();
+    private String currentFunction = null;
+    // error message → the current function's shared block for it, in first-use order
+    private final LinkedHashMap<String, String> errorBlocks = new LinkedHashMap<>();
+    // the current function's instructions, held back while sharedErrorBlocks looks for a place for them
+    private final List<Integer> heldIndents = new ArrayList<>();
+    private final List<Instruction> heldLines = new ArrayList<>();
 
 
 
 
-    private String indent() {
+    private boolean isReservedName(String name) {
+        return name.matches("a([0-9]|1[0-2])") || name.matches("t([0-9]|1[0-2])");
+    }
+
+    private static IR.token.Identifier id(String name) {
+        return new IR.token.Identifier(name);
+    }
+
+    private static Label label(String name) {
+        return new Label(name);
+    }
+
+    // a method label such as @A_run
+    private static FunctionName function(String label) {
+        return new FunctionName(label.substring(1));
+    }
+
+    private void emit(Instruction instr) {
         if (indentLevel < 0){
             indentLevel = 0;
         }
-        return new String(new char[indentLevel * 2]).replace('\0', ' ');
+        if (this.options.sharedErrorBlocks) {
+            this.heldIndents.add(indentLevel);
+            this.heldLines.add(instr);
+            return;
+        }
+        this.emitter.emit(indentLevel, instr);
     }
 
-    private boolean isReservedName(String name) {
-        return name.matches("a([0-9]|1[0-2])") || name.matches("t([0-9]|1[0-2])");
+    // ends the function; with shared error blocks this is where the held lines are written
+    private void emitReturn(String value) {
+        if (this.options.sharedErrorBlocks) {
+            int at = this.errorBlocks.isEmpty() ? -1 : this.deadSpot();
+            for (int i = 0; i < this.heldLines.size(); i++) {
+                if (i == at) this.placeErrorBlocks();
+                this.emitter.emit(this.heldIndents.get(i), this.heldLines.get(i));
+            }
+            if (at < 0 && !this.errorBlocks.isEmpty()) {
+                // straight-line code: one jump over the blocks, still fewer than one per check
+                String returnLabel = freshLabel("return");
+                this.emitter.emit(1, new Goto(label(returnLabel)));
+                this.placeErrorBlocks();
+                this.emitter.emit(0, new LabelInstr(label(returnLabel)));
+            }
+            this.heldIndents.clear();
+            this.heldLines.clear();
+            this.errorBlocks.clear();
+        }
+        if (indentLevel < 0){
+            indentLevel = 0;
+        }
+        this.emitter.emitReturn(indentLevel, id(value));
+    }
+
+    // index after the first goto that control never falls past and the peephole pass keeps,
+    // or -1 when every goto jumps to the line right after it
+    private int deadSpot() {
+        for (int i = 0; i + 1 < this.heldLines.size(); i++) {
+            if (!(this.heldLines.get(i) instanceof Goto)) continue;
+            Instruction next = this.heldLines.get(i + 1);
+            String target = ((Goto) this.heldLines.get(i)).label.toString();
+            if (!(next instanceof LabelInstr) || !((LabelInstr) next).label.toString().equals(target)) {
+                return i + 1;
+            }
+        }
+        return -1;
     }
 
-    private void emit(String line) {
-        this.lines.add(indent() + line);
+    private void placeErrorBlocks() {
+        for (String message : this.errorBlocks.keySet()) {
+            this.emitter.emit(0, new LabelInstr(label(this.errorBlocks.get(message))));
+            this.emitter.emit(1, new ErrorMessage("\"" + message + "\""));
+        }
     }
 
     private String freshTemp(String letter) {
@@ -93,49 +203,111 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
             labelBase = "this";
         }
 
+        if (this.options.sharedErrorBlocks) {
+            String message = type == 0 ? "null pointer" : "array index out of bounds";
+            String errorLabel = this.errorBlocks.get(message);
+            if (errorLabel == null) {
+                errorLabel = freshLabel(type == 0 ? "nullError" : "boundsError");
+                this.errorBlocks.put(message, errorLabel);
+            } else {
+                this.report.add(this.currentFunction, "error blocks shared", 1);
+            }
+            this.emit(new IfGoto(id(ptr), label(errorLabel)));
+            return;
+        }
+
         String errorLabel = freshLabel(labelBase + "Error");
         String endLabel = freshLabel(labelBase + "End");
     
-        this.emit("if0 " + ptr + " goto " + errorLabel);
-        this.emit("goto " + endLabel);
+        this.emit(new IfGoto(id(ptr), label(errorLabel)));
+        this.emit(new Goto(label(endLabel)));
         indentLevel = 0;
-        this.emit(errorLabel + ":");
+        this.emit(new LabelInstr(label(errorLabel)));
         indentLevel++;
-        if (type == 0) this.emit("error(\"null pointer\")");
-        else if (type == 1) this.emit("error(\"array index out of bounds\")");
+        if (type == 0) this.emit(new ErrorMessage("\"null pointer\""));
+        else if (type == 1) this.emit(new ErrorMessage("\"array index out of bounds\""));
         indentLevel--;
-        this.emit(endLabel + ":");
+        this.emit(new LabelInstr(label(endLabel)));
         indentLevel++;
     }
 
-    public String getTypeOfIdentifier(String var, MiniJavaClass cls, MiniJavaMethod method) {
-
-        if (tempVarTypes.containsKey(var)) {
-            return tempVarTypes.get(var);
+    // null check that is skipped when the pointer is already known to be non-null
+    private void emitNullCheck(String ptr) {
+        if (!this.options.nullCheckElim) {
+            this.emitError(ptr, ptr, 0);
+            return;
+        }
+        String name = this.isThisAlias(ptr) ? "this" : ptr;
+        if (this.nonNull.contains(name)) {
+            this.report.add(this.currentFunction, "null checks removed", 1);
+            return;
         }
+        this.emitError(ptr, ptr, 0);
+        this.nonNull.add(name);
+    }
 
-        for (Variable v : method.localVars) {
-            if (v.name.equals(var)) return v.type;
+    /**
+     * Class hierarchy analysis: if no subclass of cls overrides methodName,
+     * returns the label every receiver of static type cls ends up calling.
+     */
+    private String directTarget(MiniJavaClass cls, String methodName) {
+        String key = cls.getName() + "." + methodName;
+        String target = this.directTargets.get(key);
+        if (target == null) {
+            target = cls.getLayout().getMethodLabel(methodName);
+            for (MiniJavaClass other : this.table.classMap.values()) {
+                if (target == null) break;
+                for (MiniJavaClass ancestor = other.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+                    if (ancestor == cls) {
+                        if (!target.equals(other.getLayout().getMethodLabel(methodName))) {
+                            target = null;
+                        }
+                        break;
+                    }
+                }
+            }
+            if (target == null) target = "";
+            this.directTargets.put(key, target);
         }
-        for (Variable p : method.parameters) {
-            if (p.name.equals(var)) return p.type;
+        return target.isEmpty() ? null : target;
+    }
+
+    private MethodScope scopeOf(MiniJavaClass cls, MiniJavaMethod method) {
+        MethodScope scope = this.scopes.get(method);
+        if (scope == null || scope.getOwner() != cls) {
+            scope = new MethodScope(cls, method);
+            this.scopes.put(method, scope);
         }
+        return scope;
+    }
 
-        String _ret=null;
-        while (cls != null){
-            _ret = cls.getFieldType(var);
-            if (_ret != null){
-                return _ret;
-            }
-            cls = cls.getParent();
+    public String getTypeOfIdentifier(String var, MiniJavaClass cls, MiniJavaMethod method) {
+
+        if (tempVarTypes.containsKey(var)) {
+            return tempVarTypes.get(var);
         }
 
-        return _ret;
+        Binding binding = scopeOf(cls, method).lookup(var);
+        return binding == null ? null : binding.type;
     }
 
     public TranslationVisitor(SymbolTable table){
+        this(table, new TranslationOptions());
+    }
+
+    public TranslationVisitor(SymbolTable table, TranslationOptions options){
+        this(table, options, new ListEmitter());
+    }
+
+    public TranslationVisitor(SymbolTable table, TranslationOptions options, Emitter emitter){
         this.table = table;
-        this.lines = new ArrayList<>();
+        this.options = options;
+        this.sink = emitter;
+        Emitter chain = options.peephole ? new PeepholeEmitter(emitter, this.report) : emitter;
+        chain = options.loadElim ? new LoadEliminationEmitter(chain, this.report) : chain;
+        this.emitter = options.inlineSize > 0
+            ? new InliningEmitter(chain, this.report, options.inlineSize, options.inlineBudget)
+            : chain;
 
         // Fix dummy parents if child class has parent
         for (String child : this.table.classMap.keySet()) {
@@ -148,20 +320,107 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
                 this.table.classMap.get(child).setParent(trueParent);
 
             }
+        }
 
-            MiniJavaClass cls = this.table.classMap.get(child);
-            if (cls.getName() == "S"){
-                System.out.println();
-            }
+        // Parents are all real now, so vtables and offsets see the whole chain
+        for (MiniJavaClass cls : this.table.classMap.values()) {
             cls.buildVtable();
             cls.buildFieldOffsets();
         }
+        for (MiniJavaClass cls : this.table.classMap.values()) {
+            cls.buildLayout();
+        }
+    }
 
-        
+    public OptimizationReport getReport(){
+        return this.report;
     }
 
     public ArrayList<String> getLines(){
-        return this.lines;
+        if (!(this.sink instanceof ListEmitter)){
+            throw new IllegalStateException("Lines were streamed to " + this.sink.getClass().getSimpleName());
+        }
+        return ((ListEmitter) this.sink).getLines();
+    }
+
+    // offset inside any vtable slice of the pointer to cls's slice
+    private int sharedVtableOffset(String className) {
+        return (this.vtableMethodSlots + this.slicePointers.get(className)) * 4;
+    }
+
+    // names every class that appears in a new expression
+    private static class Allocations extends DepthFirstVisitor {
+        final HashSet<String> classes = new HashSet<>();
+
+        @Override
+        public void visit(AllocationExpression n) {
+            this.classes.add(n.f1.f0.toString());
+            super.visit(n);
+        }
+    }
+
+    // in Main, the address of cls's slice: the table itself or an offset from it
+    private String sharedVtableSlice(String className) {
+        int offset = this.classIndices.get(className) * this.vtableStride * 4;
+        if (offset == 0) return VTABLE_TABLE;
+        String offsetVal = freshTemp("z");
+        this.emit(new Move_Id_Integer(id(offsetVal), offset));
+        String slice = freshTemp("z");
+        this.emit(new Add(id(slice), id(VTABLE_TABLE), id(offsetVal)));
+        return slice;
+    }
+
+    /**
+     * Builds every vtable once at the top of Main inside a single table.
+     * A slice holds the class's MiniJavaClass.vtable entries padded to the widest class,
+     * followed by pointers to the slices of the classes that methods allocate, so a
+     * method reaches those through [this + 0]. The table takes classes * (methods +
+     * classes allocated in methods) words. A new costs an alloc and a header store,
+     * plus the two instructions of sharedVtableSlice in Main or two loads elsewhere.
+     */
+    private void emitSharedVtables(Set<String> allocatedInMethods) {
+        List<MiniJavaClass> classes = new ArrayList<>();
+        for (MiniJavaClass cls : this.table.classes) {
+            if (cls.main) continue;
+            this.classIndices.put(cls.getName(), classes.size());
+            classes.add(cls);
+            this.vtableMethodSlots = Math.max(this.vtableMethodSlots, cls.getLayout().getVtable().size());
+            if (allocatedInMethods.contains(cls.getName())) {
+                this.slicePointers.put(cls.getName(), this.slicePointers.size());
+            }
+        }
+        this.vtableStride = this.vtableMethodSlots + this.slicePointers.size();
+        if (this.vtableStride == 0) {
+            // nothing to share, allocations keep their own (empty) vtables
+            this.classIndices.clear();
+            return;
+        }
+
+        String sizeVal = freshTemp("z");
+        this.emit(new Move_Id_Integer(id(sizeVal), classes.size() * this.vtableStride * 4));
+        this.emit(new Alloc(id(VTABLE_TABLE), id(sizeVal)));
+        this.nonNull.add(VTABLE_TABLE);
+        this.emitNullCheck(VTABLE_TABLE);
+
+        HashMap<String, String> slices = new HashMap<>();
+        for (MiniJavaClass cls : classes) {
+            slices.put(cls.getName(), this.sharedVtableSlice(cls.getName()));
+        }
+
+        for (MiniJavaClass cls : classes) {
+            String slice = slices.get(cls.getName());
+            int size = 0;
+            for (String method : cls.getLayout().getVtable()) {
+                String methodNum = freshTemp("z");
+                this.emit(new Move_Id_FuncName(id(methodNum), function(method)));
+                this.emit(new Store(id(slice), size * 4, id(methodNum)));
+                size++;
+            }
+            for (MiniJavaClass target : classes) {
+                if (!this.slicePointers.containsKey(target.getName())) continue;
+                this.emit(new Store(id(slice), sharedVtableOffset(target.getName()), id(slices.get(target.getName()))));
+            }
+        }
     }
 
     /**
@@ -173,11 +432,17 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
     public String visit(Goal n, Void argu) {
         String _ret = null;
 
+        if (this.options.sharedVtables) {
+            Allocations allocations = new Allocations();
+            n.f1.accept(allocations);
+            this.allocatedInMethods = allocations.classes;
+        }
         _ret = n.f0.accept(this, argu);
 
         for (Node _node : n.f1.nodes){
             _node.accept(this, argu);
         }
+        this.emitter.endProgram();
         return _ret;
     }
 
@@ -204,14 +469,20 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
     @Override
     public String visit(MainClass n, Void argu) {
         String _ret=null;
-        this.emit("func Main()");
+        this.emitter.beginFunction(new FunctionName("Main"), new ArrayList<>());
+        this.currentFunction = "Main";
+        this.nonNull.clear();
         indentLevel++;
-        this.emit("y0 = 0");
+        this.emit(new Move_Id_Integer(id("y0"), 0));
         String className = n.f1.f0.toString();
         MiniJavaClass mainClass = this.table.classMap.get(className);
         mainClass.main = true;
         this.currentClass = mainClass;
 
+        if (this.options.sharedVtables) {
+            this.emitSharedVtables(this.allocatedInMethods);
+        }
+
         MiniJavaMethod mainMethod = mainClass.methods.get("main");
         this.currentMethod = mainMethod;
 
@@ -220,7 +491,8 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
             _ret = _node.accept(this, argu);
         }
 
-        this.emit("return y0");
+        this.emitReturn("y0");
+        this.emitter.endFunction();
 
         return _ret;
     }
@@ -231,46 +503,64 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String index = n.f2.accept(this, argu);
         String value = n.f5.accept(this, argu);
 
-        // Load array length
-        String length = freshTemp("z");
-        this.emit(length + " = [" + array + " + 0]");
-
-        // Check index >= 0
-        String zero = freshTemp("z");
-        this.emit(zero + " = 0");
-        String one = freshTemp("z");
-        this.emit(one + " = 1");
-        String indexCheck = freshTemp("z");
-        this.emit(indexCheck + " = " + zero + " - " + one);
-
-        String isInBounds = freshTemp("z");
-        this.emit(isInBounds + " = " + index + " < " + length);
-
-        String isValid = freshTemp("z");
-        this.emit(isValid + " = " + indexCheck + " * " + isInBounds);
-
-        this.emitError(isValid, isValid, 1);
+        if (this.isGuardedAccess(n.f0, n.f2)) {
+            // the only check here is the upper bound, which the loop already did
+            this.report.add(this.currentFunction, "bounds checks removed", 1);
+        } else {
+            this.emitStoreBoundsCheck(array, index);
+        }
 
         String wordSize = freshTemp("z");
-        this.emit(wordSize + " = 4");
+        this.emit(new Move_Id_Integer(id(wordSize), 4));
         
         String byteOffset = freshTemp("z");
-        this.emit(byteOffset + " = " + index + " * " + wordSize);
+        this.emit(new Multiply(id(byteOffset), id(index), id(wordSize)));
         
         String baseOffset = freshTemp("z");
-        this.emit(baseOffset + " = " + byteOffset + " + " + wordSize);
+        this.emit(new Add(id(baseOffset), id(byteOffset), id(wordSize)));
         
 
         // Compute address: arr + offset
         String targetAddr = freshTemp("z");
-        this.emit(targetAddr + " = " + array + " + " + baseOffset);
+        this.emit(new Add(id(targetAddr), id(array), id(baseOffset)));
 
         // Write value
-        this.emit("[" + targetAddr + " + 0] = " + value);
+        this.emit(new Store(id(targetAddr), 0, id(value)));
 
         return null;
     }
 
+    private void emitStoreBoundsCheck(String array, String index) {
+        // Load array length
+        String length = freshTemp("z");
+        this.emit(new Load(id(length), id(array), 0));
+
+        // Check index >= 0
+        String zero = freshTemp("z");
+        this.emit(new Move_Id_Integer(id(zero), 0));
+        String one = freshTemp("z");
+        this.emit(new Move_Id_Integer(id(one), 1));
+        String indexCheck = freshTemp("z");
+        this.emit(new Subtract(id(indexCheck), id(zero), id(one)));
+
+        String isInBounds = freshTemp("z");
+        this.emit(new LessThan(id(isInBounds), id(index), id(length)));
+
+        String isValid = freshTemp("z");
+        this.emit(new Multiply(id(isValid), id(indexCheck), id(isInBounds)));
+
+        this.emitError(isValid, isValid, 1);
+    }
+
+    // true when an enclosing while (i < (a.length)) already proves a[i] is below the length
+    private boolean isGuardedAccess(Node array, Node index) {
+        if (!this.options.boundsCheckElim || this.guardedAccesses.isEmpty()) return false;
+        String arrayName = ArrayLoopAnalysis.identifierName(array);
+        String indexName = ArrayLoopAnalysis.identifierName(index);
+        if (arrayName == null || indexName == null) return false;
+        return this.guardedAccesses.contains(ArrayLoopAnalysis.accessKey(arrayName, indexName));
+    }
+
     @Override
     public String visit(VarDeclaration n, Void argu) {
         String _ret = null;
@@ -348,33 +638,23 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
             expr = "this";
         } if (isReservedName(expr)) {
             String new_expr = freshTemp("z");
-            emit(new_expr + " = " + expr); 
+            this.emit(new Move_Id_Id(id(new_expr), id(expr)));
             expr = new_expr;
         }
 
-        // First, check if id is a local or parameter
-        boolean isLocalOrParam = false;
-        for (Variable v : currentMethod.localVars) {
-            if (v.name.equals(id)) {
-                isLocalOrParam = true;
-                break;
-            }
-        }
-        if (!isLocalOrParam) {
-            for (Variable p : currentMethod.parameters) {
-                if (p.name.equals(id)) {
-                    isLocalOrParam = true;
-                    break;
-                }
-            }
-        }
+        Binding binding = scopeOf(currentClass, currentMethod).lookup(id);
 
         //check local or param
-        if (isLocalOrParam) {
-            this.emit(id + " = " + expr); 
+        if (binding != null && !binding.isField()) {
+            this.emit(new Move_Id_Id(id(id), id(expr)));
+            if (this.nonNull.contains(expr)) {
+                this.nonNull.add(id);
+            } else {
+                this.nonNull.remove(id);
+            }
         } else {
-            int offset = currentClass.getFieldOffset(id);
-            this.emit("[this + " + offset + "] = " + expr);
+            int offset = binding != null ? binding.offset : -1;
+            this.emit(new Store(id("this"), offset, id(expr)));
         }
 
         return id;
@@ -384,7 +664,7 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
     public String visit(PrintStatement n, Void argu) {
         String _ret=null;
         _ret = n.f2.accept(this, argu);
-        this.emit("print(" + _ret + ")");
+        this.emit(new Print(id(_ret)));
         return _ret;
     }
 
@@ -412,18 +692,21 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String falseLabel = freshLabel("and_false");
         String endLabel = freshLabel("and_end");
 
-        this.emit("if0 " + left + " goto " + falseLabel);
+        this.emit(new IfGoto(id(left), label(falseLabel)));
+        // the right side may not run, so only what the left side proved survives
+        HashSet<String> afterLeft = new HashSet<>(this.nonNull);
 
         String right = n.f2.accept(this, argu);
-        this.emit("if0 " + right + " goto " + falseLabel);
+        this.emit(new IfGoto(id(right), label(falseLabel)));
 
-        this.emit(_ret + " = 1");
-        this.emit("goto " + endLabel);
+        this.emit(new Move_Id_Integer(id(_ret), 1));
+        this.emit(new Goto(label(endLabel)));
 
-        this.emit(falseLabel + ":");
-        this.emit(_ret + " = 0");
+        this.emit(new LabelInstr(label(falseLabel)));
+        this.emit(new Move_Id_Integer(id(_ret), 0));
 
-        this.emit(endLabel + ":");
+        this.emit(new LabelInstr(label(endLabel)));
+        this.nonNull = afterLeft;
 
         tempVarTypes.put(_ret, TypeConstants.BOOLEAN);
         return _ret;
@@ -435,10 +718,10 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
 
         String array = n.f0.accept(this, argu);
 
-        this.emitError(array, array, 0);
+        this.emitNullCheck(array);
 
         _ret  = freshTemp("z");
-        this.emit(_ret + " = [" + array + " + 0]");
+        this.emit(new Load(id(_ret), id(array), 0));
         this.tempVarTypes.put(_ret, TypeConstants.INT);
 
         return _ret;
@@ -453,7 +736,7 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String comp2 = n.f2.accept(this, argu);
 
         _ret = this.freshTemp("z");
-        this.emit(_ret + " = " + comp1 + " < " + comp2);
+        this.emit(new LessThan(id(_ret), id(comp1), id(comp2)));
         this.tempVarTypes.put(_ret, TypeConstants.BOOLEAN);
         return _ret;
     }
@@ -465,7 +748,7 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String comp2 = n.f2.accept(this, argu);
 
         _ret = this.freshTemp("z");
-        this.emit(_ret + " = " + comp1 + " + " + comp2);
+        this.emit(new Add(id(_ret), id(comp1), id(comp2)));
         this.tempVarTypes.put(_ret, TypeConstants.INT);
         return _ret;
     }
@@ -477,7 +760,7 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String comp2 = n.f2.accept(this, argu);
 
         _ret = this.freshTemp("z");
-        this.emit(_ret + " = " + comp1 + " - " + comp2);
+        this.emit(new Subtract(id(_ret), id(comp1), id(comp2)));
         this.tempVarTypes.put(_ret, TypeConstants.INT);
         return _ret;
     }
@@ -489,7 +772,7 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String comp2 = n.f2.accept(this, argu);
 
         _ret = this.freshTemp("z");
-        this.emit(_ret + " = " + comp1 + " * " + comp2);
+        this.emit(new Multiply(id(_ret), id(comp1), id(comp2)));
         this.tempVarTypes.put(_ret, TypeConstants.INT);
         return _ret;
     }
@@ -508,25 +791,26 @@ public class TranslationVisitor extends GJDepthFirst<String, Void>{
         String len = n.f3.accept(this, argu);
         String plusOne = freshTemp("z");
         String rightOne = freshTemp("z");
-        this.emit(rightOne + " = 1");
-        this.emit(plusOne + " = " + len + " + " + rightOne);
+        this.emit(new Move_Id_Integer(id(rightOne), 1));
+        this.emit(new Add(id(plusOne), id(len), id(rightOne)));
         this.tempVarTypes.put(plusOne, TypeConstants.INT);
 
         String totalSize = freshTemp("z");
         String rightFour = freshTemp("z");
-        this.emit(rightFour + " = 4");
-        this.emit(totalSize + " = " + plusOne + " * " + rightFour);
+        this.emit(new Move_Id_Integer(id(rightFour), 4));
+        this.emit(new Multiply(id(totalSize), id(plusOne), id(rightFour)));
         this.tempVarTypes.put(totalSize, TypeConstants.INT);
 
         _ret = freshTemp("z");
-        this.emit(_ret + " = alloc(" + totalSize + ")");
+        this.emit(new Alloc(id(_ret), id(totalSize)));
         this.tempVarTypes.put(_ret, TypeConstants.INT);
 
         // Add check
-        this.emitError(_ret, _ret, 0);
+        this.nonNull.add(_ret);
+        this.emitNullCheck(_ret);
 
         // Store length at [arr + 0]
-        this.emit("[" + _ret + " + 0] = " + len);
+        this.emit(new Store(id(_ret), 0, id(len)));
 
         return _ret;
     }
@@ -539,36 +823,16 @@ public String visit(Identifier n, Void argu) {
         return this.currentMethod.renamedParams.get(name);
     }
 
-    // First check if it's a local var or parameter
-    for (Variable v : currentMethod.localVars) {
-        if (v.name.equals(name)) {
-            tempVarTypes.put(name, v.type);
-            return name;
-        }
-    }
-    for (Variable p : currentMethod.parameters) {
-        if (p.name.equals(name)) {
-            tempVarTypes.put(name, p.type);
-            return name;
-        }
-    }
-
-    String fieldType=null;
-    int offset=-1;
-    MiniJavaClass searchClass = currentClass;
-    while (searchClass != null) {
-        if (searchClass.getFieldType(name) != null) {
-            fieldType = searchClass.getFieldType(name);
-            offset = searchClass.getFieldOffset(name);
-            break;
-        }
-        searchClass = searchClass.getParent();
+    Binding binding = scopeOf(currentClass, currentMethod).lookup(name);
+    if (binding != null && !binding.isField()) {
+        tempVarTypes.put(name, binding.type);
+        return name;
     }
 
-    if (offset != -1 && fieldType != null){
+    if (binding != null && binding.offset != -1 && binding.type != null){
         String temp = freshTemp("z");
-        this.emit(temp + " = [this + " + offset + "]");
-        tempVarTypes.put(temp, fieldType);
+        this.emit(new Load(id(temp), id("this"), binding.offset));
+        tempVarTypes.put(temp, binding.type);
 
         return temp;
     }
@@ -595,27 +859,30 @@ public String visit(Identifier n, Void argu) {
 
 
         String className = this.currentClass.getName();
-        List<String> params = new ArrayList<>();
-        params.add("this");
-        List<String> sanitizeLines = new ArrayList<>();
+        List<IR.token.Identifier> params = new ArrayList<>();
+        params.add(id("this"));
+        List<Instruction> sanitizeLines = new ArrayList<>();
         for (Variable param : expectedMethod.parameters) {
             String name = param.name;
             if (isReservedName(name)) {
                 String temp = freshTemp("z");
                 this.currentMethod.renamedParams.put(name, temp);
                 tempVarTypes.put(temp, param.type);
-                params.add(temp);
+                params.add(id(temp));
             } else{
                 staticTypes.put(param.name, param.type);
-                params.add(name);
+                params.add(id(name));
             }
         }
         
 
-        this.emit("func " + className + "_" + methodName + "(" + String.join(" ", params) + ")");
+        this.emitter.beginFunction(new FunctionName(className + "_" + methodName), params);
+        this.currentFunction = className + "_" + methodName;
+        this.nonNull.clear();
+        this.nonNull.add("this");
         indentLevel++;
 
-        for (String s : sanitizeLines) {
+        for (Instruction s : sanitizeLines) {
             emit(s);
         }
 
@@ -625,7 +892,8 @@ public String visit(Identifier n, Void argu) {
 
         String returnExpr = n.f10.accept(this, argu);
 
-        this.emit("return " + returnExpr);
+        this.emitReturn(returnExpr);
+        this.emitter.endFunction();
 
         this.currentMethod = oldCurrentMethod;
         return _ret;
@@ -635,50 +903,104 @@ public String visit(Identifier n, Void argu) {
     public String visit(ArrayLookup n, Void argu) {
         String array = n.f0.accept(this, argu);
         String index = n.f2.accept(this, argu);
+
+        boolean knownBelowLength = this.isGuardedAccess(n.f0, n.f2);
+        boolean knownNonNegative = this.options.boundsCheckElim && ArrayLoopAnalysis.isNonNegativeLiteral(n.f2);
+        if (knownBelowLength || knownNonNegative) {
+            return this.emitCheckedLoad(array, index, knownBelowLength, knownNonNegative);
+        }
     
         // Load length = [array + 0]
         String length = freshTemp("z");
-        this.emit(length + " = [" + array + " + 0]");
+        this.emit(new Load(id(length), id(array), 0));
 
         String wordSize = freshTemp("z");
-        this.emit(wordSize + " = 4");
+        this.emit(new Move_Id_Integer(id(wordSize), 4));
 
         String one = freshTemp("z");
         String zero = freshTemp("z");
-        this.emit(one + " = 1");
-        this.emit(zero + " = 0");
+        this.emit(new Move_Id_Integer(id(one), 1));
+        this.emit(new Move_Id_Integer(id(zero), 0));
     
         // minusOne = 0 - 1
         String minusOne = freshTemp("z");
-        this.emit(minusOne + " = " + zero + " - " + one);
+        this.emit(new Subtract(id(minusOne), id(zero), id(one)));
     
         // Bounds check: (-1 < index) && (index < length)
         String checkLower = freshTemp("z");
-        this.emit(checkLower + " = " + minusOne + " < " + index);
+        this.emit(new LessThan(id(checkLower), id(minusOne), id(index)));
     
         String checkUpper = freshTemp("z");
-        this.emit(checkUpper + " = " + index + " < " + length);
+        this.emit(new LessThan(id(checkUpper), id(index), id(length)));
     
         String checkBoth = freshTemp("z");
-        this.emit(checkBoth + " = " + checkLower + " * " + checkUpper);
+        this.emit(new Multiply(id(checkBoth), id(checkLower), id(checkUpper)));
     
         this.emitError(checkBoth, checkBoth, 1);
 
         String offset = freshTemp("z");
-        this.emit(offset + " = " + index + " * " + wordSize);
+        this.emit(new Multiply(id(offset), id(index), id(wordSize)));
 
         String totalOffset = freshTemp("z");
-        this.emit(totalOffset + " = " + offset + " + " + wordSize);
+        this.emit(new Add(id(totalOffset), id(offset), id(wordSize)));
 
         String address = freshTemp("z");
-        this.emit(address + " = " + array + " + " + totalOffset);
+        this.emit(new Add(id(address), id(array), id(totalOffset)));
     
         // Load result = [address + 0]
         String result = freshTemp("z");
-        this.emit(result + " = [" + address + " + 0]");
+        this.emit(new Load(id(result), id(address), 0));
     
         return result;
     }
+
+    /**
+     * ArrayLookup with the half of the bounds check that is already known dropped.
+     */
+    private String emitCheckedLoad(String array, String index, boolean knownBelowLength, boolean knownNonNegative) {
+        int removed = 0;
+        if (knownBelowLength && knownNonNegative) {
+            removed = 2;
+        } else if (knownBelowLength) {
+            String one = freshTemp("z");
+            String zero = freshTemp("z");
+            this.emit(new Move_Id_Integer(id(one), 1));
+            this.emit(new Move_Id_Integer(id(zero), 0));
+            String minusOne = freshTemp("z");
+            this.emit(new Subtract(id(minusOne), id(zero), id(one)));
+
+            String checkLower = freshTemp("z");
+            this.emit(new LessThan(id(checkLower), id(minusOne), id(index)));
+            this.emitError(checkLower, checkLower, 1);
+            removed = 1;
+        } else {
+            String length = freshTemp("z");
+            this.emit(new Load(id(length), id(array), 0));
+
+            String checkUpper = freshTemp("z");
+            this.emit(new LessThan(id(checkUpper), id(index), id(length)));
+            this.emitError(checkUpper, checkUpper, 1);
+            removed = 1;
+        }
+        this.report.add(this.currentFunction, "bounds checks removed", removed);
+
+        String wordSize = freshTemp("z");
+        this.emit(new Move_Id_Integer(id(wordSize), 4));
+
+        String offset = freshTemp("z");
+        this.emit(new Multiply(id(offset), id(index), id(wordSize)));
+
+        String totalOffset = freshTemp("z");
+        this.emit(new Add(id(totalOffset), id(offset), id(wordSize)));
+
+        String address = freshTemp("z");
+        this.emit(new Add(id(address), id(array), id(totalOffset)));
+
+        String result = freshTemp("z");
+        this.emit(new Load(id(result), id(address), 0));
+
+        return result;
+    }
     
 
 
@@ -688,36 +1010,52 @@ public String visit(Identifier n, Void argu) {
         String className = n.f1.f0.toString();
         MiniJavaClass cls = this.table.classMap.get(className);
 
-        int totalFieldCount = cls.fieldOffsets.size();
-
-        int sizeInBytes = 4 + totalFieldCount * 4;
+        int sizeInBytes = cls.getLayout().getObjectSize();
         String sizeVal = freshTemp("z");
-        this.emit(sizeVal + " = " + sizeInBytes);
+        this.emit(new Move_Id_Integer(id(sizeVal), sizeInBytes));
         this.tempVarTypes.put(sizeVal, TypeConstants.INT);
 
         //Allocate fields table
         _ret = freshTemp("z");
-        this.emit(_ret + " = alloc(" + sizeVal + ")");
+        this.emit(new Alloc(id(_ret), id(sizeVal)));
+        this.tempVarTypes.put(_ret, className);
 
-        int methodCount = cls.vtable.size();
+        if (this.options.sharedVtables && this.classIndices.containsKey(className)) {
+            // vtable already built in Main, only the header needs setting
+            String vmtLabel;
+            if (this.currentClass.main) {
+                vmtLabel = this.sharedVtableSlice(className);
+            } else {
+                String thisVmt = freshTemp("z");
+                this.emit(new Load(id(thisVmt), id("this"), 0));
+                vmtLabel = freshTemp("z");
+                this.emit(new Load(id(vmtLabel), id(thisVmt), sharedVtableOffset(className)));
+            }
+            this.emit(new Store(id(_ret), 0, id(vmtLabel)));
+            this.nonNull.add(_ret);
+            this.emitNullCheck(_ret);
+            return _ret;
+        }
+
+        int methodCount = cls.getLayout().getVtable().size();
         int methodsSize = methodCount * 4;
         String methodSizeVal = freshTemp("z");
-        this.emit(methodSizeVal + " = " + methodsSize);
-        this.tempVarTypes.put(_ret, className);
+        this.emit(new Move_Id_Integer(id(methodSizeVal), methodsSize));
 
         String vmtLabel = "vmt_" + className;
-        this.emit(vmtLabel + " = alloc(" + methodSizeVal + ")");
+        this.emit(new Alloc(id(vmtLabel), id(methodSizeVal)));
 
         int size = 0;
-        for (String method : cls.vtable){
+        for (String method : cls.getLayout().getVtable()){
             String methodNum = freshTemp("z");
-            this.emit(methodNum + " = " + method);
-            this.emit("[" + vmtLabel + " + " + (size * 4) + "] = " + methodNum);
+            this.emit(new Move_Id_FuncName(id(methodNum), function(method)));
+            this.emit(new Store(id(vmtLabel), size * 4, id(methodNum)));
             size++;
         }
-        this.emit("[" + _ret + " + 0] = " + vmtLabel);
+        this.emit(new Store(id(_ret), 0, id(vmtLabel)));
 
-        this.emitError(_ret, _ret, 0);
+        this.nonNull.add(_ret);
+        this.emitNullCheck(_ret);
         return _ret;
     }
 
@@ -726,7 +1064,7 @@ public String visit(Identifier n, Void argu) {
 
         String _ret=null;
         String obj = n.f0.accept(this, argu);
-        this.emitError(obj, obj, 0);
+        this.emitNullCheck(obj);
 
         String objType = this.getTypeOfIdentifier(obj, this.currentClass, this.currentMethod);
         if (this.isThisAlias(obj)){
@@ -776,17 +1114,26 @@ public String visit(Identifier n, Void argu) {
         MiniJavaMethod oldMethod = this.currentMethod;
         this.currentMethod = method;
 
-        if (!targetClass.vtableIndices.containsKey(methodName)) {
-            System.err.println("Method " + methodName + " not in vtable for class " + targetClass.getName());
+        int offset = targetClass.getLayout().getMethodOffset(methodName);
+        if (offset == -1) {
+            throw new RuntimeException("Method " + methodName + " not in vtable for class " + targetClass.getName());
         }
-        int offset = targetClass.vtableIndices.get(methodName);
-        String vtable = freshTemp("z");
-        this.emit(vtable + " = [" + obj + " + 0]");
-        this.tempVarTypes.put(vtable, TypeConstants.INT);
+        String direct = this.options.devirtualize ? this.directTarget(targetClass, methodName) : null;
+        String fnPtr;
+        if (direct != null) {
+            fnPtr = freshTemp("z");
+            this.emit(new Move_Id_FuncName(id(fnPtr), function(direct)));
+            this.tempVarTypes.put(fnPtr, TypeConstants.INT);
+            this.report.add(this.currentFunction, "calls devirtualized", 1);
+        } else {
+            String vtable = freshTemp("z");
+            this.emit(new Load(id(vtable), id(obj), 0));
+            this.tempVarTypes.put(vtable, TypeConstants.INT);
 
-        String fnPtr = freshTemp("z");
-        this.emit(fnPtr + " = [" + vtable + " + " + offset + "]");
-        this.tempVarTypes.put(fnPtr, TypeConstants.INT);
+            fnPtr = freshTemp("z");
+            this.emit(new Load(id(fnPtr), id(vtable), offset));
+            this.tempVarTypes.put(fnPtr, TypeConstants.INT);
+        }
 
         //call method
         List<String> callArgs = new ArrayList<>();
@@ -794,7 +1141,9 @@ public String visit(Identifier n, Void argu) {
         callArgs.addAll(argTemps);
 
         _ret = freshTemp("z");
-        this.emit(_ret + " = call " + fnPtr + "(" + String.join(" ", callArgs) + ")");
+        List<IR.token.Identifier> callIds = new ArrayList<>();
+        for (String arg : callArgs) callIds.add(id(arg));
+        this.emit(new Call(id(_ret), id(fnPtr), callIds));
         this.tempVarTypes.put(_ret, this.currentMethod.getReturnType().type);
 
         this.currentClass = oldClass;
@@ -816,11 +1165,11 @@ public String visit(Identifier n, Void argu) {
 
         String one = freshTemp("z");
         String literalOne = freshTemp("z");
-        this.emit(literalOne + " = 1");
-        this.emit(one + " = " + literalOne);
+        this.emit(new Move_Id_Integer(id(literalOne), 1));
+        this.emit(new Move_Id_Id(id(one), id(literalOne)));
 
         String result = freshTemp("z");
-        this.emit(result + " = " + one + " - " + exprVal);
+        this.emit(new Subtract(id(result), id(one), id(exprVal)));
         tempVarTypes.put(result, TypeConstants.BOOLEAN);
 
         return result;
@@ -832,7 +1181,7 @@ public String visit(Identifier n, Void argu) {
         String _ret=null;
         _ret = freshTemp("z");
         this.tempVarTypes.put(_ret, TypeConstants.BOOLEAN);
-        this.emit(_ret + " = 1");
+        this.emit(new Move_Id_Integer(id(_ret), 1));
         return _ret;
     }
 
@@ -842,7 +1191,7 @@ public String visit(Identifier n, Void argu) {
         String _ret=null;
         _ret = freshTemp("z");
         this.tempVarTypes.put(_ret, TypeConstants.BOOLEAN);
-        this.emit(_ret + " = 0");
+        this.emit(new Move_Id_Integer(id(_ret), 0));
         return _ret;
     }
 
@@ -852,7 +1201,7 @@ public String visit(Identifier n, Void argu) {
         _ret = n.f0.toString();
         String temp = freshTemp("z");
         this.tempVarTypes.put(temp, TypeConstants.INT);
-        this.emit(temp + " = " + _ret);
+        this.emit(new Move_Id_Integer(id(temp), Integer.parseInt(_ret)));
         return temp;
     }
 
@@ -864,19 +1213,93 @@ public String visit(Identifier n, Void argu) {
         return "this_$"+_ret;
     }
 
+    // the expression under any Expression, PrimaryExpression and bracket wrappers
+    private static Node condition(Node n) {
+        while (true) {
+            if (n instanceof Expression) {
+                n = ((Expression) n).f0.choice;
+            } else if (n instanceof PrimaryExpression) {
+                n = ((PrimaryExpression) n).f0.choice;
+            } else if (n instanceof BracketExpression) {
+                n = ((BracketExpression) n).f1;
+            } else {
+                return n;
+            }
+        }
+    }
+
+    // jumps to label when the condition is false, falls through when it is true
+    private void jumpIfFalse(Node n, String label) {
+        Node cond = condition(n);
+        if (cond instanceof AndExpression) {
+            AndExpression and = (AndExpression) cond;
+            this.jumpIfFalse(and.f0, label);
+            // the right side may not run, so only what the left side proved survives
+            HashSet<String> afterLeft = new HashSet<>(this.nonNull);
+            this.jumpIfFalse(and.f2, label);
+            this.nonNull = afterLeft;
+            this.report.add(this.currentFunction, "booleans not built", 1);
+        } else if (cond instanceof NotExpression) {
+            this.jumpIfTrue(((NotExpression) cond).f1, label);
+            this.report.add(this.currentFunction, "booleans not built", 1);
+        } else if (cond instanceof FalseLiteral) {
+            this.emit(new Goto(label(label)));
+        } else if (!(cond instanceof TrueLiteral)) {
+            this.emit(new IfGoto(id(cond.accept(this, null)), label(label)));
+        }
+    }
+
+    // jumps to label when the condition is true, falls through when it is false
+    private void jumpIfTrue(Node n, String label) {
+        Node cond = condition(n);
+        if (cond instanceof AndExpression) {
+            AndExpression and = (AndExpression) cond;
+            String falseLabel = freshLabel("and_false");
+            this.jumpIfFalse(and.f0, falseLabel);
+            HashSet<String> afterLeft = new HashSet<>(this.nonNull);
+            this.jumpIfTrue(and.f2, label);
+            this.emit(new LabelInstr(label(falseLabel)));
+            this.nonNull = afterLeft;
+            this.report.add(this.currentFunction, "booleans not built", 1);
+        } else if (cond instanceof NotExpression) {
+            this.jumpIfFalse(((NotExpression) cond).f1, label);
+            this.report.add(this.currentFunction, "booleans not built", 1);
+        } else if (cond instanceof TrueLiteral) {
+            this.emit(new Goto(label(label)));
+        } else if (!(cond instanceof FalseLiteral)) {
+            String falseLabel = freshLabel("cond_false");
+            this.emit(new IfGoto(id(cond.accept(this, null)), label(falseLabel)));
+            this.emit(new Goto(label(label)));
+            this.emit(new LabelInstr(label(falseLabel)));
+        }
+    }
+
     @Override 
     public String visit(IfStatement n, Void argu){
         String _ret=null;
-        _ret = n.f2.accept(this, argu);
-        String elseLabel = freshLabel("else");
-        String endLabel = freshLabel("ifend");
+        String elseLabel;
+        String endLabel;
 
-        this.emit("if0 " + _ret + " goto " + elseLabel);
+        if (this.options.branchConditions) {
+            elseLabel = freshLabel("else");
+            endLabel = freshLabel("ifend");
+            this.jumpIfFalse(n.f2, elseLabel);
+        } else {
+            // labels after the condition, so the plain translation numbers them as before
+            _ret = n.f2.accept(this, argu);
+            elseLabel = freshLabel("else");
+            endLabel = freshLabel("ifend");
+            this.emit(new IfGoto(id(_ret), label(elseLabel)));
+        }
+        HashSet<String> beforeBranches = new HashSet<>(this.nonNull);
         n.f4.accept(this, argu);  // then branch
-        this.emit("goto " + endLabel);
-        this.emit(elseLabel + ":");
+        HashSet<String> afterThen = this.nonNull;
+        this.emit(new Goto(label(endLabel)));
+        this.emit(new LabelInstr(label(elseLabel)));
+        this.nonNull = beforeBranches;
         n.f6.accept(this, argu);  // else branch
-        this.emit(endLabel + ":");
+        this.emit(new LabelInstr(label(endLabel)));
+        this.nonNull.retainAll(afterThen);
         return _ret;
     }
 
@@ -884,23 +1307,66 @@ public String visit(Identifier n, Void argu) {
     public String visit(WhileStatement n, Void argu) {
         String _ret=null;
 
+        if (this.options.branchConditions) {
+            return this.rotatedWhile(n);
+        }
+
         String startLabel = freshLabel("whileStart");
         String bodyLabel = freshLabel("whileBody");
         String endLabel = freshLabel("whileEnd");
-        this.emit(startLabel + ":");
+        this.emit(new LabelInstr(label(startLabel)));
+        // the back edge may bring new values for anything the body assigns
+        this.nonNull.removeAll(ArrayLoopAnalysis.assignedNames(n.f4));
 
         _ret = n.f2.accept(this, argu);
-        this.emit("if0 " + _ret + " goto " + endLabel);
+        this.emit(new IfGoto(id(_ret), label(endLabel)));
+        HashSet<String> atExit = new HashSet<>(this.nonNull);
 
-        this.emit(bodyLabel + ":");
+        this.emit(new LabelInstr(label(bodyLabel)));
         indentLevel++;
-        n.f4.accept(this, argu);
+        this.whileBody(n);
 
-        this.emit("goto " + startLabel);
+        this.emit(new Goto(label(startLabel)));
 
-        this.emit(endLabel + ":");
+        this.emit(new LabelInstr(label(endLabel)));
         indentLevel++;
+        this.nonNull = atExit;
 
         return _ret;
     }
+
+    /**
+     * Bottom-test form: the condition is tested once on entry and again after
+     * the body, which jumps straight back to the top, so an iteration runs no
+     * goto of its own.
+     */
+    private String rotatedWhile(WhileStatement n) {
+        String bodyLabel = freshLabel("whileBody");
+        String endLabel = freshLabel("whileEnd");
+        this.nonNull.removeAll(ArrayLoopAnalysis.assignedNames(n.f4));
+
+        this.jumpIfFalse(n.f2, endLabel);
+        HashSet<String> atExit = new HashSet<>(this.nonNull);
+
+        this.emit(new LabelInstr(label(bodyLabel)));
+        indentLevel++;
+        this.whileBody(n);
+        this.jumpIfTrue(n.f2, bodyLabel);
+
+        this.emit(new LabelInstr(label(endLabel)));
+        indentLevel++;
+        this.nonNull = atExit;
+        this.report.add(this.currentFunction, "loops rotated", 1);
+        return null;
+    }
+
+    private void whileBody(WhileStatement n) {
+        String guarded = null;
+        if (this.options.boundsCheckElim) {
+            guarded = ArrayLoopAnalysis.guardedAccess(n, scopeOf(currentClass, currentMethod), currentMethod.renamedParams);
+        }
+        if (guarded != null) this.guardedAccesses.add(guarded);
+        n.f4.accept(this, null);
+        if (guarded != null) this.guardedAccesses.remove(this.guardedAccesses.size() - 1);
+    }
 }
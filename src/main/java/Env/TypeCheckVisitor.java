@@ -91,6 +91,15 @@ public class TypeCheckVisitor extends GJDepthFirst<String, Void> {
             throw new RuntimeException("Inheritance cycle found");
         }
 
+        // Field and method lookups below go through the flattened layouts
+        for (MiniJavaClass cls : this.table.classMap.values()) {
+            cls.buildVtable();
+            cls.buildFieldOffsets();
+        }
+        for (MiniJavaClass cls : this.table.classMap.values()) {
+            cls.buildLayout();
+        }
+
         // Run through main class
         _ret = n.f0.accept(this, argu);
 
@@ -411,18 +420,12 @@ public class TypeCheckVisitor extends GJDepthFirst<String, Void> {
         }
     
         // 2. Check fields in class and parents
-        MiniJavaClass cls = currClass;
-        while (cls != null) {
-            for (Variable field : cls.fields) {
-                if (field.name.equals(identifierName)) {
-                    return field.type;
-                }
-            }
-
-            if (cls.methods.get(identifierName) != null){
-                return identifierName;
-            }
-            cls = cls.getParent();
+        Binding field = currClass.getLayout().getField(identifierName);
+        if (field != null) {
+            return field.type;
+        }
+        if (currClass.getLayout().hasMethod(identifierName)){
+            return identifierName;
         }
 
 
@@ -656,21 +659,9 @@ public class TypeCheckVisitor extends GJDepthFirst<String, Void> {
 
         // If still not found, search class fields
         if (lhsType == null) {
-            for (Variable field : currentClass.fields) {
-                if (field.name.equals(varName)) {
-                    lhsType = field;
-                    break;
-                }
-            }
-
-            while (currentClass.getParent() != null){
-                for (Variable field : currentClass.getParent().fields){
-                    if (field.name.equals(varName)){
-                        lhsType = field;
-                        break;
-                    }
-                }
-                currentClass = currentClass.getParent();
+            Binding field = currentClass.getLayout().getField(varName);
+            if (field != null) {
+                lhsType = new Variable(varName, field.type);
             }
         }
 
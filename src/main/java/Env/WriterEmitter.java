@@ -0,0 +1,49 @@
+package Env;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Streams lines straight into a buffered Writer and flushes after every function,
+ * so only the function being translated is ever held in memory.
+ */
+public class WriterEmitter extends Emitter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer out;
+
+    public WriterEmitter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, BUFFER_SIZE);
+    }
+
+    @Override
+    public void emit(int indentLevel, String line) {
+        try {
+            this.out.write(indent(indentLevel));
+            this.out.write(line);
+            this.out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endFunction() {
+        try {
+            this.out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
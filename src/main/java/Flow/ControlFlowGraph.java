@@ -0,0 +1,179 @@
+package Flow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import IR.token.Label;
+
+/**
+ * Basic blocks of one function body with successor and predecessor arrays and a
+ * reverse postorder. Building it is linear in the number of instructions.
+ * Block numbers follow the code, so block 0 is the entry and the last block is
+ * the one that runs into the function's return.
+ */
+public class ControlFlowGraph<I> {
+    private final List<I> code;
+    private final Dialect<I> dialect;
+    private final SymbolPool pool;
+    // position of each label id, -1 while undefined
+    private int[] labels = new int[0];
+    private int[] starts;
+    private int[] ends;
+    private int[][] successors;
+    private int[][] predecessors;
+    private int[] reversePostorder;
+
+    public ControlFlowGraph(List<I> code, Dialect<I> dialect) {
+        this(code, dialect, new SymbolPool());
+    }
+
+    public ControlFlowGraph(List<I> code, Dialect<I> dialect, SymbolPool pool) {
+        this.code = code;
+        this.dialect = dialect;
+        this.pool = pool;
+        this.build();
+    }
+
+    public List<I> getCode() {
+        return this.code;
+    }
+
+    public Dialect<I> getDialect() {
+        return this.dialect;
+    }
+
+    public SymbolPool getSymbols() {
+        return this.pool;
+    }
+
+    public int size() {
+        return this.starts.length;
+    }
+
+    public int getStart(int block) {
+        return this.starts[block];
+    }
+
+    public int getEnd(int block) {
+        return this.ends[block];
+    }
+
+    public int[] getSuccessors(int block) {
+        return this.successors[block];
+    }
+
+    public int[] getPredecessors(int block) {
+        return this.predecessors[block];
+    }
+
+    // reachable blocks only, entry first
+    public int[] getReversePostorder() {
+        return this.reversePostorder;
+    }
+
+    // position of the label, or -1 when the function does not define it
+    public int getLabelPosition(Label label) {
+        int id = this.pool.label(label);
+        return id < this.labels.length ? this.labels[id] : -1;
+    }
+
+    public int blockOf(int position) {
+        int block = Arrays.binarySearch(this.starts, position);
+        return block >= 0 ? block : -block - 2;
+    }
+
+    // the last block when control can fall off it into the return, otherwise none
+    public boolean isExit(int block) {
+        return block == this.starts.length - 1 && this.dialect.fallsThrough(this.code.get(this.ends[block]));
+    }
+
+    private void build() {
+        int n = this.code.size();
+        boolean[] leader = new boolean[n + 1];
+        leader[0] = true;
+        for (int i = 0; i < n; i++) {
+            I instr = this.code.get(i);
+            Label label = this.dialect.label(instr);
+            if (label != null) {
+                int id = this.pool.label(label);
+                if (id >= this.labels.length) {
+                    int grown = this.labels.length;
+                    this.labels = Arrays.copyOf(this.labels, Math.max(16, id * 2));
+                    Arrays.fill(this.labels, grown, this.labels.length, -1);
+                }
+                this.labels[id] = i;
+                leader[i] = true;
+            } else if (this.dialect.target(instr) != null || !this.dialect.fallsThrough(instr)) {
+                leader[i + 1] = true;
+            }
+        }
+
+        int blocks = 0;
+        for (int i = 0; i < n; i++) if (leader[i]) blocks++;
+        this.starts = new int[blocks];
+        this.ends = new int[blocks];
+        for (int i = 0, b = 0; i < n; i++) {
+            if (leader[i]) this.starts[b++] = i;
+        }
+        for (int b = 0; b < blocks; b++) {
+            this.ends[b] = b + 1 < blocks ? this.starts[b + 1] - 1 : n - 1;
+        }
+
+        this.successors = new int[blocks][];
+        int[] incoming = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            I end = this.code.get(this.ends[b]);
+            Label target = this.dialect.target(end);
+            int jump = target == null ? -1 : this.getLabelPosition(target);
+            boolean next = this.dialect.fallsThrough(end) && b + 1 < blocks;
+            int[] edges = new int[(jump >= 0 ? 1 : 0) + (next ? 1 : 0)];
+            int k = 0;
+            if (jump >= 0) edges[k++] = this.blockOf(jump);
+            if (next && (k == 0 || edges[0] != b + 1)) edges[k++] = b + 1;
+            this.successors[b] = k == edges.length ? edges : Arrays.copyOf(edges, k);
+            for (int s : this.successors[b]) incoming[s]++;
+        }
+
+        this.predecessors = new int[blocks][];
+        for (int b = 0; b < blocks; b++) this.predecessors[b] = new int[incoming[b]];
+        int[] filled = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            for (int s : this.successors[b]) this.predecessors[s][filled[s]++] = b;
+        }
+
+        this.reversePostorder = this.postorder();
+        for (int i = 0, j = this.reversePostorder.length - 1; i < j; i++, j--) {
+            int swap = this.reversePostorder[i];
+            this.reversePostorder[i] = this.reversePostorder[j];
+            this.reversePostorder[j] = swap;
+        }
+    }
+
+    // iterative depth-first search so deep chains of blocks cannot overflow the stack
+    private int[] postorder() {
+        int blocks = this.starts.length;
+        List<Integer> order = new ArrayList<>(blocks);
+        if (blocks == 0) return new int[0];
+        boolean[] visited = new boolean[blocks];
+        int[] stack = new int[blocks];
+        int[] nextEdge = new int[blocks];
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        while (top > 0) {
+            int b = stack[top - 1];
+            if (nextEdge[b] < this.successors[b].length) {
+                int s = this.successors[b][nextEdge[b]++];
+                if (!visited[s]) {
+                    visited[s] = true;
+                    stack[top++] = s;
+                }
+            } else {
+                top--;
+                order.add(b);
+            }
+        }
+        return order.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,106 @@
+package Flow;
+
+
+/**
+ * Worklist solver for gen/kill problems over bit sets of dense indices. Blocks
+ * are seeded in reverse postorder (forward) or its reverse (backward) and only
+ * revisited when a neighbour's set changes, so acyclic code is solved in one pass.
+ * Blocks the entry cannot reach are still solved, after the reachable ones.
+ */
+public class Dataflow {
+
+    public enum Direction { FORWARD, BACKWARD }
+
+    public enum Meet { UNION, INTERSECTION }
+
+    private final SparseBitSet[] in;
+    private final SparseBitSet[] out;
+
+    /**
+     * @param boundary value flowing into the entry block (forward) or out of exit blocks (backward)
+     * @param universe number of indices; intersection problems start every block full
+     */
+    public Dataflow(ControlFlowGraph<?> cfg, Direction direction, Meet meet,
+                    SparseBitSet[] gen, SparseBitSet[] kill, SparseBitSet boundary, int universe) {
+        int blocks = cfg.size();
+        this.in = new SparseBitSet[blocks];
+        this.out = new SparseBitSet[blocks];
+        boolean forward = direction == Direction.FORWARD;
+        for (int b = 0; b < blocks; b++) {
+            this.in[b] = new SparseBitSet();
+            this.out[b] = new SparseBitSet();
+            if (meet == Meet.INTERSECTION) {
+                (forward ? this.out[b] : this.in[b]).set(0, universe);
+            }
+        }
+
+        int[] order = new int[blocks];
+        boolean[] queued = new boolean[blocks];
+        int[] rpo = cfg.getReversePostorder();
+        int count = 0;
+        for (int i = 0; i < rpo.length; i++) {
+            int b = forward ? rpo[i] : rpo[rpo.length - 1 - i];
+            order[count++] = b;
+            queued[b] = true;
+        }
+        for (int b = 0; b < blocks; b++) {
+            if (!queued[b]) {
+                order[count++] = b;
+                queued[b] = true;
+            }
+        }
+
+        // circular queue holding each block at most once
+        int[] queue = order;
+        int head = 0;
+        int size = blocks;
+        SparseBitSet result = new SparseBitSet();
+        while (size > 0) {
+            int b = queue[head];
+            head = (head + 1) % blocks;
+            size--;
+            queued[b] = false;
+
+            int[] sources = forward ? cfg.getPredecessors(b) : cfg.getSuccessors(b);
+            SparseBitSet joined = forward ? this.in[b] : this.out[b];
+            boolean boundaryBlock = forward ? b == 0 : cfg.isExit(b);
+            if (meet == Meet.UNION || sources.length == 0) {
+                joined.clear();
+            } else {
+                joined.set(0, universe);
+            }
+            for (int s : sources) {
+                SparseBitSet value = forward ? this.out[s] : this.in[s];
+                if (meet == Meet.UNION) joined.or(value); else joined.and(value);
+            }
+            if (boundaryBlock) {
+                if (meet == Meet.UNION || sources.length == 0) joined.or(boundary); else joined.and(boundary);
+            }
+
+            result.clear();
+            result.or(joined);
+            result.andNot(kill[b]);
+            result.or(gen[b]);
+            SparseBitSet previous = forward ? this.out[b] : this.in[b];
+            if (result.equals(previous)) continue;
+            if (forward) this.out[b] = result; else this.in[b] = result;
+            result = previous;
+
+            for (int t : forward ? cfg.getSuccessors(b) : cfg.getPredecessors(b)) {
+                if (!queued[t]) {
+                    queued[t] = true;
+                    queue[(head + size) % blocks] = t;
+                    size++;
+                }
+            }
+        }
+    }
+
+    public SparseBitSet getIn(int block) {
+        return this.in[block];
+    }
+
+    public SparseBitSet getOut(int block) {
+        return this.out[block];
+    }
+}
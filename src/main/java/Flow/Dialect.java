@@ -0,0 +1,26 @@
+package Flow;
+
+import java.util.List;
+
+import IR.token.Label;
+
+/**
+ * What the flow framework needs to know about one IR's instructions. Defs and
+ * uses are the IR's own tokens (identifiers, and registers in Sparrow-V), so
+ * clients can number them through a SymbolPool without going through strings.
+ */
+public interface Dialect<I> {
+
+    // label this instruction defines, or null
+    Label label(I instr);
+
+    // label this instruction may jump to, or null
+    Label target(I instr);
+
+    // false when control never reaches the next instruction
+    boolean fallsThrough(I instr);
+
+    List<?> defs(I instr);
+
+    List<?> uses(I instr);
+}
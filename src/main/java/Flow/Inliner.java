@@ -0,0 +1,276 @@
+package Flow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import IR.token.Identifier;
+import IR.token.Label;
+import RegAlloc.DefUse;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Program;
+import sparrow.Store;
+import sparrow.Subtract;
+
+/**
+ * Splices small leaf functions into the direct calls that devirtualization
+ * leaves behind (f = @Class_method followed by x = call f(...)). Only
+ * functions without calls are inlined, so a spliced body never brings in
+ * another call and recursion cannot unroll. Every callee identifier and label
+ * gets a prefix that is free in the caller; parameters the callee never
+ * assigns are replaced by the arguments themselves. Each caller may grow by at
+ * most budget instructions.
+ */
+public class Inliner {
+    private final Program program;
+    private final int maxSize;
+    private final int budget;
+    private final HashMap<String, FunctionDecl> leaves = new HashMap<>();
+    private final HashMap<String, Integer> inlined = new HashMap<>();
+    private final HashMap<String, Integer> growth = new HashMap<>();
+
+    public Inliner(Program program, int maxSize, int budget) {
+        this.program = program;
+        this.maxSize = maxSize;
+        this.budget = budget;
+    }
+
+    public void run() {
+        for (FunctionDecl function : this.program.funDecls) {
+            if (this.isInlinable(function)) this.leaves.put(function.functionName.toString(), function);
+        }
+        for (FunctionDecl function : this.program.funDecls) this.inlineInto(function);
+    }
+
+    public int getInlined(String function) {
+        return this.inlined.getOrDefault(function, 0);
+    }
+
+    // instructions gained (or lost, when negative) by function
+    public int getGrowth(String function) {
+        return this.growth.getOrDefault(function, 0);
+    }
+
+    private static String name(Identifier id) {
+        return id.toString();
+    }
+
+    private static int size(List<Instruction> code) {
+        int size = 0;
+        for (Instruction instr : code) if (!(instr instanceof LabelInstr)) size++;
+        return size;
+    }
+
+    /**
+     * Small, free of calls, and reading no local before it is written: in the
+     * caller such a read would see the last inlined run instead of failing.
+     */
+    private boolean isInlinable(FunctionDecl function) {
+        List<Instruction> code = function.block.instructions;
+        if (size(code) > this.maxSize) return false;
+        for (Instruction instr : code) if (instr instanceof Call) return false;
+
+        HashSet<String> parameters = new HashSet<>();
+        for (Identifier parameter : function.formalParameters) parameters.add(name(parameter));
+        if (code.isEmpty()) return parameters.contains(name(function.block.return_id));
+        SymbolPool pool = new SymbolPool();
+        for (Instruction instr : code) {
+            Identifier def = DefUse.def(instr);
+            if (def != null) pool.id(def);
+            for (Identifier use : DefUse.uses(instr)) pool.id(use);
+        }
+        SparseBitSet exit = new SparseBitSet();
+        exit.set(pool.id(function.block.return_id));
+        ControlFlowGraph<Instruction> cfg = new ControlFlowGraph<>(code, SparrowDialect.INSTANCE, pool);
+        Liveness<Instruction> liveness = new Liveness<>(cfg, token -> pool.id((Identifier) token), exit, pool.size());
+        SparseBitSet entry = liveness.getLiveIn(0);
+        for (int id = entry.nextSetBit(0); id >= 0; id = entry.nextSetBit(id + 1)) {
+            if (!parameters.contains(pool.name(id))) return false;
+        }
+        return true;
+    }
+
+    private void inlineInto(FunctionDecl caller) {
+        List<Instruction> code = caller.block.instructions;
+        HashMap<String, Integer> defs = new HashMap<>();
+        HashMap<String, Integer> uses = new HashMap<>();
+        HashMap<String, String> functionOf = new HashMap<>();
+        HashSet<String> taken = new HashSet<>();
+        for (Identifier parameter : caller.formalParameters) {
+            defs.merge(name(parameter), 1, Integer::sum);
+            taken.add(name(parameter));
+        }
+        uses.merge(name(caller.block.return_id), 1, Integer::sum);
+        taken.add(name(caller.block.return_id));
+        for (Instruction instr : code) {
+            Identifier def = DefUse.def(instr);
+            if (def != null) {
+                defs.merge(name(def), 1, Integer::sum);
+                taken.add(name(def));
+            }
+            for (Identifier use : DefUse.uses(instr)) {
+                uses.merge(name(use), 1, Integer::sum);
+                taken.add(name(use));
+            }
+            if (instr instanceof LabelInstr) taken.add(((LabelInstr) instr).label.toString());
+            if (instr instanceof Move_Id_FuncName) {
+                functionOf.put(name(((Move_Id_FuncName) instr).lhs), ((Move_Id_FuncName) instr).rhs.toString());
+            }
+        }
+
+        // pick the sites first, in order, until the budget runs out
+        String callerName = caller.functionName.toString();
+        HashMap<Integer, FunctionDecl> sites = new HashMap<>();
+        HashSet<String> deadPointers = new HashSet<>();
+        int spent = 0;
+        for (int i = 0; i < code.size(); i++) {
+            if (!(code.get(i) instanceof Call)) continue;
+            Call call = (Call) code.get(i);
+            String pointer = name(call.callee);
+            FunctionDecl callee = defs.getOrDefault(pointer, 0) == 1 ? this.leaves.get(functionOf.get(pointer)) : null;
+            if (callee == null || callee == caller || callee.formalParameters.size() != call.args.size()) continue;
+            int cost = size(callee.block.instructions);
+            if (spent + cost > this.budget) continue;
+            spent += cost;
+            sites.put(i, callee);
+            if (uses.get(pointer) == 1) deadPointers.add(pointer);
+        }
+        if (sites.isEmpty()) return;
+
+        List<Instruction> result = new ArrayList<>(code.size() + spent);
+        int site = 0;
+        for (int i = 0; i < code.size(); i++) {
+            Instruction instr = code.get(i);
+            if (instr instanceof Move_Id_FuncName && deadPointers.contains(name(((Move_Id_FuncName) instr).lhs))) {
+                continue;
+            }
+            FunctionDecl callee = sites.get(i);
+            if (callee == null) {
+                result.add(instr);
+                continue;
+            }
+            String prefix;
+            do {
+                prefix = "inl" + (site++) + "_";
+            } while (!this.isFree(prefix, callee, taken));
+            this.splice((Call) instr, callee, prefix, result);
+        }
+
+        this.inlined.put(callerName, sites.size());
+        this.growth.put(callerName, size(result) - size(code));
+        caller.block.instructions = result;
+        for (Instruction instr : result) instr.parent = caller.block;
+    }
+
+    // no renamed callee name may already mean something in the caller
+    private boolean isFree(String prefix, FunctionDecl callee, HashSet<String> taken) {
+        for (Identifier parameter : callee.formalParameters) {
+            if (taken.contains(prefix + name(parameter))) return false;
+        }
+        if (taken.contains(prefix + name(callee.block.return_id))) return false;
+        for (Instruction instr : callee.block.instructions) {
+            Identifier def = DefUse.def(instr);
+            if (def != null && taken.contains(prefix + name(def))) return false;
+            if (instr instanceof LabelInstr && taken.contains(prefix + ((LabelInstr) instr).label)) return false;
+        }
+        return true;
+    }
+
+    private void splice(Call call, FunctionDecl callee, String prefix, List<Instruction> out) {
+        HashSet<String> assigned = new HashSet<>();
+        for (Instruction instr : callee.block.instructions) {
+            Identifier def = DefUse.def(instr);
+            if (def != null) assigned.add(name(def));
+        }
+
+        HashMap<String, Identifier> renamed = new HashMap<>();
+        for (int k = 0; k < callee.formalParameters.size(); k++) {
+            String parameter = name(callee.formalParameters.get(k));
+            Identifier arg = call.args.get(k);
+            if (assigned.contains(parameter)) {
+                Identifier local = new Identifier(prefix + parameter);
+                out.add(new Move_Id_Id(local, arg));
+                renamed.put(parameter, local);
+            } else {
+                renamed.put(parameter, arg);
+            }
+        }
+        Function<Identifier, Identifier> ids =
+            id -> renamed.computeIfAbsent(name(id), n -> new Identifier(prefix + n));
+        HashMap<String, Label> labels = new HashMap<>();
+        Function<Label, Label> jumps = label -> labels.computeIfAbsent(label.toString(), l -> new Label(prefix + l));
+
+        for (Instruction instr : callee.block.instructions) out.add(copy(instr, ids, jumps));
+        out.add(new Move_Id_Id(call.lhs, ids.apply(callee.block.return_id)));
+    }
+
+    private static Instruction copy(Instruction instr, Function<Identifier, Identifier> ids,
+                                    Function<Label, Label> labels) {
+        if (instr instanceof LabelInstr) return new LabelInstr(labels.apply(((LabelInstr) instr).label));
+        if (instr instanceof Move_Id_Integer) {
+            Move_Id_Integer move = (Move_Id_Integer) instr;
+            return new Move_Id_Integer(ids.apply(move.lhs), move.rhs);
+        }
+        if (instr instanceof Move_Id_FuncName) {
+            Move_Id_FuncName move = (Move_Id_FuncName) instr;
+            return new Move_Id_FuncName(ids.apply(move.lhs), move.rhs);
+        }
+        if (instr instanceof Add) {
+            Add add = (Add) instr;
+            return new Add(ids.apply(add.lhs), ids.apply(add.arg1), ids.apply(add.arg2));
+        }
+        if (instr instanceof Subtract) {
+            Subtract sub = (Subtract) instr;
+            return new Subtract(ids.apply(sub.lhs), ids.apply(sub.arg1), ids.apply(sub.arg2));
+        }
+        if (instr instanceof Multiply) {
+            Multiply mul = (Multiply) instr;
+            return new Multiply(ids.apply(mul.lhs), ids.apply(mul.arg1), ids.apply(mul.arg2));
+        }
+        if (instr instanceof LessThan) {
+            LessThan less = (LessThan) instr;
+            return new LessThan(ids.apply(less.lhs), ids.apply(less.arg1), ids.apply(less.arg2));
+        }
+        if (instr instanceof Load) {
+            Load load = (Load) instr;
+            return new Load(ids.apply(load.lhs), ids.apply(load.base), load.offset);
+        }
+        if (instr instanceof Store) {
+            Store store = (Store) instr;
+            return new Store(ids.apply(store.base), store.offset, ids.apply(store.rhs));
+        }
+        if (instr instanceof Move_Id_Id) {
+            Move_Id_Id move = (Move_Id_Id) instr;
+            return new Move_Id_Id(ids.apply(move.lhs), ids.apply(move.rhs));
+        }
+        if (instr instanceof Alloc) {
+            Alloc alloc = (Alloc) instr;
+            return new Alloc(ids.apply(alloc.lhs), ids.apply(alloc.size));
+        }
+        if (instr instanceof Print) return new Print(ids.apply(((Print) instr).content));
+        if (instr instanceof ErrorMessage) return new ErrorMessage(((ErrorMessage) instr).msg);
+        if (instr instanceof Goto) return new Goto(labels.apply(((Goto) instr).label));
+        if (instr instanceof IfGoto) {
+            IfGoto jump = (IfGoto) instr;
+            return new IfGoto(ids.apply(jump.condition), labels.apply(jump.label));
+        }
+        throw new IllegalArgumentException("Cannot inline " + instr);
+    }
+}
@@ -0,0 +1,61 @@
+package Flow;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Live variables over any Dialect. Tokens are mapped to dense indices by the
+ * caller, usually through a SymbolPool, so the result lines up with whatever
+ * table the client keeps.
+ */
+public class Liveness<I> {
+    private final ControlFlowGraph<I> cfg;
+    private final ToIntFunction<Object> index;
+    private final Dataflow solution;
+
+    public Liveness(ControlFlowGraph<I> cfg, ToIntFunction<Object> index, SparseBitSet liveOnExit, int universe) {
+        this.cfg = cfg;
+        this.index = index;
+        Dialect<I> dialect = cfg.getDialect();
+        List<I> code = cfg.getCode();
+
+        int blocks = cfg.size();
+        SparseBitSet[] use = new SparseBitSet[blocks];
+        SparseBitSet[] def = new SparseBitSet[blocks];
+        for (int b = 0; b < blocks; b++) {
+            use[b] = new SparseBitSet();
+            def[b] = new SparseBitSet();
+            for (int i = cfg.getStart(b); i <= cfg.getEnd(b); i++) {
+                I instr = code.get(i);
+                for (Object token : dialect.uses(instr)) {
+                    int id = index.applyAsInt(token);
+                    if (!def[b].get(id)) use[b].set(id);
+                }
+                for (Object token : dialect.defs(instr)) def[b].set(index.applyAsInt(token));
+            }
+        }
+        this.solution = new Dataflow(cfg, Dataflow.Direction.BACKWARD, Dataflow.Meet.UNION,
+            use, def, liveOnExit, universe);
+    }
+
+    public SparseBitSet getLiveIn(int block) {
+        return this.solution.getIn(block);
+    }
+
+    public SparseBitSet getLiveOut(int block) {
+        return this.solution.getOut(block);
+    }
+
+    // indices still needed after the instruction at position
+    public SparseBitSet getLiveAfter(int position) {
+        int block = this.cfg.blockOf(position);
+        SparseBitSet live = this.getLiveOut(block).clone();
+        Dialect<I> dialect = this.cfg.getDialect();
+        for (int i = this.cfg.getEnd(block); i > position; i--) {
+            I instr = this.cfg.getCode().get(i);
+            for (Object token : dialect.defs(instr)) live.clear(this.index.applyAsInt(token));
+            for (Object token : dialect.uses(instr)) live.set(this.index.applyAsInt(token));
+        }
+        return live;
+    }
+}
@@ -0,0 +1,381 @@
+package Flow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import IR.token.Identifier;
+import RegAlloc.DefUse;
+import sparrow.Add;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.Load;
+import sparrow.Move_Id_Id;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Store;
+import sparrow.Subtract;
+
+/**
+ * Available-loads analysis over one function of translator output. Loads that
+ * are loop invariant are first moved into the loop's pre-header, then every
+ * load whose slot was already loaded on all paths, with no store or call in
+ * between, reuses the earlier result.
+ *
+ * Aliasing follows the translator's memory layout: a pointer formed by
+ * arithmetic only ever addresses an array element, which lies past the length
+ * slot of its array and outside every object (the shared vtables are also
+ * filled this way, but at the top of Main before anything is loaded). So calls
+ * kill every load, a store through such a pointer kills only loads through such
+ * pointers, and a store [p + k] also kills the loads at offset k.
+ */
+public class LoadElimination {
+    private final List<Identifier> parameters;
+    private final Identifier returnId;
+    private List<Instruction> code;
+    private int hoisted = 0;
+    private int removed = 0;
+
+    public LoadElimination(List<Identifier> parameters, List<Instruction> code, Identifier returnId) {
+        this.parameters = parameters;
+        this.code = new ArrayList<>(code);
+        this.returnId = returnId;
+    }
+
+    // folding a copy can give later loads the same base as earlier ones, so both steps repeat
+    public List<Instruction> run() {
+        do {
+            while (this.hoistOnce()) {
+            }
+        } while (this.reuseLoads());
+        return this.code;
+    }
+
+    public int getHoisted() {
+        return this.hoisted;
+    }
+
+    // loads replaced by a copy of an earlier result or dropped altogether
+    public int getRemoved() {
+        return this.removed;
+    }
+
+    private static String name(Identifier id) {
+        return id.toString();
+    }
+
+    private HashMap<String, Integer> countDefinitions() {
+        HashMap<String, Integer> defs = new HashMap<>();
+        for (Identifier parameter : this.parameters) defs.merge(name(parameter), 1, Integer::sum);
+        for (Instruction instr : this.code) {
+            Identifier def = DefUse.def(instr);
+            if (def != null) defs.merge(name(def), 1, Integer::sum);
+        }
+        return defs;
+    }
+
+    // names holding a pointer formed by arithmetic, directly or through copies
+    private HashSet<String> derivedPointers() {
+        HashSet<String> derived = new HashSet<>();
+        for (Instruction instr : this.code) {
+            if (instr instanceof Add || instr instanceof Subtract || instr instanceof Multiply) {
+                derived.add(name(DefUse.def(instr)));
+            }
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Instruction instr : this.code) {
+                if (instr instanceof Move_Id_Id && derived.contains(name(((Move_Id_Id) instr).rhs))) {
+                    changed |= derived.add(name(((Move_Id_Id) instr).lhs));
+                }
+            }
+        }
+        return derived;
+    }
+
+    // blocks dominating each block, itself included
+    private static Dataflow dominators(ControlFlowGraph<Instruction> cfg) {
+        int blocks = cfg.size();
+        SparseBitSet[] gen = new SparseBitSet[blocks];
+        SparseBitSet[] kill = new SparseBitSet[blocks];
+        for (int b = 0; b < blocks; b++) {
+            gen[b] = new SparseBitSet();
+            gen[b].set(b);
+            kill[b] = new SparseBitSet();
+        }
+        return new Dataflow(cfg, Dataflow.Direction.FORWARD, Dataflow.Meet.INTERSECTION,
+            gen, kill, new SparseBitSet(), blocks);
+    }
+
+    /**
+     * Moves the invariant loads at the top of one loop's header into its
+     * pre-header, innermost loops first. Returns false once no loop has any.
+     */
+    private boolean hoistOnce() {
+        ControlFlowGraph<Instruction> cfg = new ControlFlowGraph<>(this.code, SparrowDialect.INSTANCE);
+        Dataflow dominators = dominators(cfg);
+        HashMap<Integer, SparseBitSet> loops = new HashMap<>();
+        for (int b : cfg.getReversePostorder()) {
+            for (int header : cfg.getSuccessors(b)) {
+                if (!dominators.getOut(b).get(header)) continue;
+                SparseBitSet body = loops.computeIfAbsent(header, h -> new SparseBitSet());
+                body.set(header);
+                int[] stack = new int[cfg.size()];
+                int top = 0;
+                if (!body.get(b)) {
+                    body.set(b);
+                    stack[top++] = b;
+                }
+                while (top > 0) {
+                    for (int p : cfg.getPredecessors(stack[--top])) {
+                        if (!body.get(p)) {
+                            body.set(p);
+                            stack[top++] = p;
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Integer> headers = new ArrayList<>(loops.keySet());
+        headers.sort((x, y) -> loops.get(x).cardinality() - loops.get(y).cardinality());
+        HashMap<String, Integer> defs = this.countDefinitions();
+        HashSet<String> derived = this.derivedPointers();
+        for (int header : headers) {
+            List<Integer> moved = this.invariantLoads(cfg, header, loops.get(header), defs, derived);
+            if (moved.isEmpty()) continue;
+            int at = cfg.getStart(header);
+            List<Instruction> hoistedLoads = new ArrayList<>();
+            for (int position : moved) hoistedLoads.add(this.code.get(position));
+            for (int i = moved.size() - 1; i >= 0; i--) this.code.remove((int) moved.get(i));
+            this.code.addAll(at, hoistedLoads);
+            this.hoisted += moved.size();
+            return true;
+        }
+        return false;
+    }
+
+    // positions of the header's loads that can run once before the loop instead
+    private List<Integer> invariantLoads(ControlFlowGraph<Instruction> cfg, int header, SparseBitSet body,
+                                         HashMap<String, Integer> defs, HashSet<String> derived) {
+        List<Integer> moved = new ArrayList<>();
+        // the pre-header is whatever falls into the header label from just above the loop
+        int start = cfg.getStart(header);
+        if (header == 0 || body.get(header - 1) || !(this.code.get(start) instanceof LabelInstr)) return moved;
+        for (int p : cfg.getPredecessors(header)) {
+            if (!body.get(p) && p != header - 1) return moved;
+        }
+        Instruction above = this.code.get(cfg.getEnd(header - 1));
+        if (!DefUse.fallsThrough(above) || DefUse.target(above) != null
+                && cfg.getLabelPosition(DefUse.target(above)) == start) {
+            return moved;
+        }
+
+        HashSet<String> loopDefs = new HashSet<>();
+        List<Store> stores = new ArrayList<>();
+        for (int b = body.nextSetBit(0); b >= 0; b = body.nextSetBit(b + 1)) {
+            for (int i = cfg.getStart(b); i <= cfg.getEnd(b); i++) {
+                Instruction instr = this.code.get(i);
+                if (instr instanceof Call) return moved;
+                if (instr instanceof Store) stores.add((Store) instr);
+                Identifier def = DefUse.def(instr);
+                if (def != null) loopDefs.add(name(def));
+            }
+        }
+
+        // stop at the first instruction anyone could observe, so no output moves past a failing load
+        for (int i = start + 1; i <= cfg.getEnd(header); i++) {
+            Instruction instr = this.code.get(i);
+            if (instr instanceof Store || instr instanceof Print || instr instanceof ErrorMessage) break;
+            if (!(instr instanceof Load)) continue;
+            Load load = (Load) instr;
+            String target = name(load.lhs);
+            String base = name(load.base);
+            if (loopDefs.contains(base) || defs.get(target) != 1 || target.equals(base)) continue;
+            boolean killed = false;
+            for (Store store : stores) {
+                killed |= derived.contains(base)
+                    || !derived.contains(name(store.base)) && store.offset == load.offset;
+            }
+            if (killed) continue;
+            moved.add(i);
+            loopDefs.remove(target);
+        }
+        return moved;
+    }
+
+    /**
+     * Replaces each load whose slot is available with a copy of the earlier
+     * result, drops the ones whose own earlier result is still valid and folds
+     * away copies only used right after them. Returns whether any load went.
+     */
+    private boolean reuseLoads() {
+        ControlFlowGraph<Instruction> cfg = new ControlFlowGraph<>(this.code, SparrowDialect.INSTANCE);
+        List<Integer> loads = new ArrayList<>();
+        HashMap<String, SparseBitSet> byKey = new HashMap<>();
+        HashMap<String, SparseBitSet> byName = new HashMap<>();
+        HashMap<Integer, SparseBitSet> byOffset = new HashMap<>();
+        SparseBitSet throughDerived = new SparseBitSet();
+        HashSet<String> derived = this.derivedPointers();
+        for (int i = 0; i < this.code.size(); i++) {
+            if (!(this.code.get(i) instanceof Load)) continue;
+            Load load = (Load) this.code.get(i);
+            int fact = loads.size();
+            loads.add(i);
+            byKey.computeIfAbsent(key(load), k -> new SparseBitSet()).set(fact);
+            byName.computeIfAbsent(name(load.base), k -> new SparseBitSet()).set(fact);
+            byName.computeIfAbsent(name(load.lhs), k -> new SparseBitSet()).set(fact);
+            byOffset.computeIfAbsent(load.offset, k -> new SparseBitSet()).set(fact);
+            if (derived.contains(name(load.base))) throughDerived.set(fact);
+        }
+        if (loads.isEmpty()) return false;
+        int[] factAt = new int[this.code.size()];
+        Arrays.fill(factAt, -1);
+        for (int fact = 0; fact < loads.size(); fact++) factAt[loads.get(fact)] = fact;
+
+        SparseBitSet all = new SparseBitSet();
+        all.set(0, loads.size());
+        Transfer transfer = new Transfer(all, byName, byOffset, throughDerived, derived, factAt);
+        int blocks = cfg.size();
+        SparseBitSet[] gen = new SparseBitSet[blocks];
+        SparseBitSet[] kill = new SparseBitSet[blocks];
+        for (int b = 0; b < blocks; b++) {
+            gen[b] = new SparseBitSet();
+            kill[b] = new SparseBitSet();
+            for (int i = cfg.getStart(b); i <= cfg.getEnd(b); i++) {
+                transfer.apply(i, this.code.get(i), gen[b], kill[b]);
+            }
+        }
+        Dataflow available = new Dataflow(cfg, Dataflow.Direction.FORWARD, Dataflow.Meet.INTERSECTION,
+            gen, kill, new SparseBitSet(), loads.size());
+
+        int before = this.removed;
+        boolean[] dropped = new boolean[this.code.size()];
+        List<Integer> copies = new ArrayList<>();
+        for (int b = 0; b < blocks; b++) {
+            SparseBitSet facts = available.getIn(b).clone();
+            SparseBitSet ignored = new SparseBitSet();
+            for (int i = cfg.getStart(b); i <= cfg.getEnd(b); i++) {
+                Instruction instr = this.code.get(i);
+                if (instr instanceof Load) {
+                    Load load = (Load) instr;
+                    SparseBitSet same = byKey.get(key(load)).clone();
+                    same.and(facts);
+                    if (same.get(factAt[i])) {
+                        dropped[i] = true;
+                        this.removed++;
+                    } else if (!same.isEmpty()) {
+                        Load earlier = (Load) this.code.get(loads.get(same.nextSetBit(0)));
+                        this.code.set(i, new Move_Id_Id(load.lhs, earlier.lhs));
+                        copies.add(i);
+                        this.removed++;
+                    }
+                }
+                transfer.apply(i, instr, facts, ignored);
+            }
+        }
+
+        this.foldCopies(cfg, copies, dropped);
+        List<Instruction> kept = new ArrayList<>(this.code.size());
+        for (int i = 0; i < this.code.size(); i++) {
+            if (!dropped[i]) kept.add(this.code.get(i));
+        }
+        this.code = kept;
+        return this.removed > before;
+    }
+
+    private static String key(Load load) {
+        return name(load.base) + "+" + load.offset;
+    }
+
+    // gen and kill of one instruction, applied to a running pair of sets
+    private static final class Transfer {
+        private final SparseBitSet all;
+        private final HashMap<String, SparseBitSet> byName;
+        private final HashMap<Integer, SparseBitSet> byOffset;
+        private final SparseBitSet throughDerived;
+        private final HashSet<String> derived;
+        private final int[] factAt;
+
+        Transfer(SparseBitSet all, HashMap<String, SparseBitSet> byName, HashMap<Integer, SparseBitSet> byOffset,
+                 SparseBitSet throughDerived, HashSet<String> derived, int[] factAt) {
+            this.all = all;
+            this.byName = byName;
+            this.byOffset = byOffset;
+            this.throughDerived = throughDerived;
+            this.derived = derived;
+            this.factAt = factAt;
+        }
+
+        private static void kill(SparseBitSet facts, SparseBitSet gen, SparseBitSet kill) {
+            if (facts == null) return;
+            gen.andNot(facts);
+            kill.or(facts);
+        }
+
+        void apply(int position, Instruction instr, SparseBitSet gen, SparseBitSet kill) {
+            if (instr instanceof Call) {
+                kill(this.all, gen, kill);
+            } else if (instr instanceof Store) {
+                Store store = (Store) instr;
+                kill(this.throughDerived, gen, kill);
+                if (!this.derived.contains(name(store.base))) kill(this.byOffset.get(store.offset), gen, kill);
+            }
+            Identifier def = DefUse.def(instr);
+            if (def != null) kill(this.byName.get(name(def)), gen, kill);
+            if (instr instanceof Load && !name(((Load) instr).lhs).equals(name(((Load) instr).base))) {
+                int fact = this.factAt[position];
+                gen.set(fact);
+                kill.clear(fact);
+            }
+        }
+    }
+
+    /**
+     * A copy x = y made from a load folds away when x and y each have a single
+     * definition and x's dominates every read of x: y cannot have changed since
+     * the copy at any of those reads, so they use y directly.
+     */
+    private void foldCopies(ControlFlowGraph<Instruction> cfg, List<Integer> copies, boolean[] dropped) {
+        HashMap<String, Integer> defs = this.countDefinitions();
+        HashMap<String, List<Integer>> readers = new HashMap<>();
+        for (int i = 0; i < this.code.size(); i++) {
+            for (Identifier use : DefUse.uses(this.code.get(i))) {
+                List<Integer> at = readers.computeIfAbsent(name(use), k -> new ArrayList<>());
+                if (at.isEmpty() || at.get(at.size() - 1) != i) at.add(i);
+            }
+        }
+        Dataflow dominators = dominators(cfg);
+        for (int position : copies) {
+            Move_Id_Id copy = (Move_Id_Id) this.code.get(position);
+            String target = name(copy.lhs);
+            String source = name(copy.rhs);
+            if (defs.get(target) != 1 || defs.getOrDefault(source, 0) != 1
+                    || target.equals(name(this.returnId))) {
+                continue;
+            }
+            List<Integer> reads = readers.getOrDefault(target, new ArrayList<>());
+            int block = cfg.blockOf(position);
+            boolean dominated = true;
+            for (int i : reads) {
+                int reader = cfg.blockOf(i);
+                dominated &= reader == block ? i > position : dominators.getOut(reader).get(block);
+            }
+            if (!dominated) continue;
+            for (int i : reads) rename(this.code.get(i), target, copy.rhs);
+            readers.computeIfAbsent(source, k -> new ArrayList<>()).addAll(reads);
+            readers.remove(target);
+            dropped[position] = true;
+        }
+    }
+
+    // points every read of from in instr at to
+    private static void rename(Instruction instr, String from, Identifier to) {
+        DefUse.replaceUses(instr, id -> name(id).equals(from) ? to : id);
+    }
+}
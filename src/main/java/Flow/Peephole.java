@@ -0,0 +1,248 @@
+package Flow;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import IR.token.Identifier;
+import RegAlloc.DefUse;
+import sparrow.Add;
+import sparrow.ErrorMessage;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Subtract;
+
+/**
+ * Local value numbering and a few peephole rules over one function of
+ * translator output.
+ * <p>
+ * Inside a block, constants that are already in a variable are reused, constant
+ * arithmetic is folded, and copies are propagated so that moves like x = y; y = x
+ * and the double move in NotExpression disappear. Pure definitions nobody reads
+ * are then deleted, as are jumps to the very next label. The code is rewritten
+ * in place and deleted instructions are left as null, so callers can keep
+ * per-position data such as indentation.
+ */
+public class Peephole {
+    private final List<Instruction> code;
+    private Identifier returnId;
+    private int removed = 0;
+
+    public Peephole(List<Instruction> code, Identifier returnId) {
+        this.code = code;
+        this.returnId = returnId;
+    }
+
+    public List<Instruction> run() {
+        this.numberValues();
+        this.removeDeadDefinitions();
+        this.removeJumpsToNext();
+        return this.code;
+    }
+
+    // the return value may become a copy's source
+    public Identifier getReturnId() {
+        return this.returnId;
+    }
+
+    public int getRemoved() {
+        return this.removed;
+    }
+
+    private static String name(Identifier id) {
+        return id.toString();
+    }
+
+    private void delete(int position) {
+        this.code.set(position, null);
+        this.removed++;
+    }
+
+    // what one point of the function knows about its variables
+    private static final class Values {
+        final HashMap<String, Integer> constOf = new HashMap<>();
+        final HashMap<Integer, Identifier> holder = new HashMap<>();
+        final HashMap<String, Identifier> copyOf = new HashMap<>();
+
+        Values copy() {
+            Values copy = new Values();
+            copy.constOf.putAll(this.constOf);
+            copy.holder.putAll(this.holder);
+            copy.copyOf.putAll(this.copyOf);
+            return copy;
+        }
+
+        Identifier resolve(Identifier id) {
+            return this.copyOf.getOrDefault(name(id), id);
+        }
+
+        // forget everything that depended on the old value of name
+        void kill(String name) {
+            Integer value = this.constOf.remove(name);
+            if (value != null && this.holder.containsKey(value) && name.equals(name(this.holder.get(value)))) {
+                this.holder.remove(value);
+            }
+            this.copyOf.remove(name);
+            this.copyOf.values().removeIf(source -> name.equals(name(source)));
+        }
+    }
+
+    private static boolean isArithmetic(Instruction instr) {
+        return instr instanceof Add || instr instanceof Subtract || instr instanceof Multiply
+            || instr instanceof LessThan;
+    }
+
+    private static boolean isPure(Instruction instr) {
+        return isArithmetic(instr) || instr instanceof Move_Id_Integer || instr instanceof Move_Id_Id
+            || instr instanceof Move_Id_FuncName;
+    }
+
+    private static int fold(Instruction instr, int left, int right) {
+        if (instr instanceof Add) return left + right;
+        if (instr instanceof Subtract) return left - right;
+        if (instr instanceof Multiply) return left * right;
+        return left < right ? 1 : 0;
+    }
+
+    /**
+     * Knowledge flows into any label with a single predecessor (such as the End
+     * labels of the translator's error checks) and is dropped at labels that
+     * several paths reach.
+     */
+    private void numberValues() {
+        HashMap<String, Integer> predecessors = this.countPredecessors();
+        HashMap<String, Values> atLabel = new HashMap<>();
+        Values values = new Values();
+
+        for (int i = 0; i < this.code.size(); i++) {
+            Instruction instr = this.code.get(i);
+            if (instr instanceof LabelInstr) {
+                // with one predecessor the label sees exactly that predecessor's values
+                String label = ((LabelInstr) instr).label.toString();
+                Values entry = atLabel.remove(label);
+                if (predecessors.get(label) != 1) {
+                    values = new Values();
+                } else if (entry != null) {
+                    values = entry;
+                }
+                continue;
+            }
+
+            DefUse.replaceUses(instr, values::resolve);
+            Identifier def = DefUse.def(instr);
+
+            if (isArithmetic(instr)) {
+                List<Identifier> uses = DefUse.uses(instr);
+                Integer left = values.constOf.get(name(uses.get(0)));
+                Integer right = values.constOf.get(name(uses.get(1)));
+                if (left != null && right != null) {
+                    int value = fold(instr, left, right);
+                    // Sparrow has no negative literals, so those stay as arithmetic
+                    if (value < 0) {
+                        values.kill(name(def));
+                        values.constOf.put(name(def), value);
+                        values.holder.putIfAbsent(value, def);
+                        continue;
+                    }
+                    instr = new Move_Id_Integer(def, value);
+                    this.code.set(i, instr);
+                }
+            }
+
+            if (instr instanceof Move_Id_Id) {
+                Move_Id_Id move = (Move_Id_Id) instr;
+                Integer value = values.constOf.get(name(move.rhs));
+                if (name(move.rhs).equals(name(move.lhs))) {
+                    this.delete(i);
+                    continue;
+                }
+                if (value != null && value >= 0) {
+                    instr = new Move_Id_Integer(move.lhs, value);
+                    this.code.set(i, instr);
+                }
+            }
+
+            if (instr instanceof Move_Id_Integer) {
+                int value = ((Move_Id_Integer) instr).rhs;
+                values.kill(name(def));
+                Identifier existing = values.holder.get(value);
+                if (existing != null) {
+                    values.copyOf.put(name(def), existing);
+                } else {
+                    values.holder.put(value, def);
+                }
+                values.constOf.put(name(def), value);
+            } else if (instr instanceof Move_Id_Id) {
+                Identifier source = ((Move_Id_Id) instr).rhs;
+                Integer value = values.constOf.get(name(source));
+                values.kill(name(def));
+                values.copyOf.put(name(def), source);
+                if (value != null) values.constOf.put(name(def), value);
+            } else if (instr instanceof IfGoto) {
+                atLabel.put(((IfGoto) instr).label.toString(), values.copy());
+            } else if (instr instanceof Goto || instr instanceof ErrorMessage) {
+                if (instr instanceof Goto) atLabel.put(((Goto) instr).label.toString(), values);
+                values = new Values();
+            } else if (def != null) {
+                values.kill(name(def));
+            }
+        }
+        this.returnId = values.resolve(this.returnId);
+    }
+
+    // jumps plus fall-through into each label
+    private HashMap<String, Integer> countPredecessors() {
+        HashMap<String, Integer> predecessors = new HashMap<>();
+        Instruction previous = null;
+        for (Instruction instr : this.code) {
+            if (instr instanceof LabelInstr) {
+                boolean fallsThrough = previous == null || DefUse.fallsThrough(previous);
+                predecessors.merge(((LabelInstr) instr).label.toString(), fallsThrough ? 1 : 0, Integer::sum);
+            } else if (DefUse.target(instr) != null) {
+                predecessors.merge(DefUse.target(instr).toString(), 1, Integer::sum);
+            }
+            previous = instr;
+        }
+        return predecessors;
+    }
+
+    private void removeDeadDefinitions() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            HashSet<String> used = new HashSet<>();
+            used.add(name(this.returnId));
+            for (Instruction instr : this.code) {
+                if (instr == null) continue;
+                for (Identifier use : DefUse.uses(instr)) used.add(name(use));
+            }
+            for (int i = 0; i < this.code.size(); i++) {
+                Instruction instr = this.code.get(i);
+                if (instr != null && isPure(instr) && !used.contains(name(DefUse.def(instr)))) {
+                    this.delete(i);
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private void removeJumpsToNext() {
+        int pendingGoto = -1;
+        for (int i = 0; i < this.code.size(); i++) {
+            Instruction instr = this.code.get(i);
+            if (instr == null) continue;
+            if (pendingGoto >= 0 && instr instanceof LabelInstr && ((LabelInstr) instr).label.toString()
+                    .equals(((Goto) this.code.get(pendingGoto)).label.toString())) {
+                this.delete(pendingGoto);
+            }
+            pendingGoto = instr instanceof Goto ? i : -1;
+        }
+    }
+}
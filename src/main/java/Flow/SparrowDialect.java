@@ -0,0 +1,46 @@
+package Flow;
+
+import java.util.Collections;
+import java.util.List;
+
+import IR.token.Identifier;
+import IR.token.Label;
+import RegAlloc.DefUse;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+
+/**
+ * Sparrow instructions, described through RegAlloc.DefUse.
+ */
+public final class SparrowDialect implements Dialect<Instruction> {
+    public static final SparrowDialect INSTANCE = new SparrowDialect();
+
+    private SparrowDialect() {
+    }
+
+    @Override
+    public Label label(Instruction instr) {
+        return instr instanceof LabelInstr ? ((LabelInstr) instr).label : null;
+    }
+
+    @Override
+    public Label target(Instruction instr) {
+        return DefUse.target(instr);
+    }
+
+    @Override
+    public boolean fallsThrough(Instruction instr) {
+        return DefUse.fallsThrough(instr);
+    }
+
+    @Override
+    public List<Identifier> defs(Instruction instr) {
+        Identifier def = DefUse.def(instr);
+        return def == null ? Collections.emptyList() : List.of(def);
+    }
+
+    @Override
+    public List<Identifier> uses(Instruction instr) {
+        return DefUse.uses(instr);
+    }
+}
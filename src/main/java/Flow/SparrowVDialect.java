@@ -0,0 +1,106 @@
+package Flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import IR.token.Label;
+import IR.token.Register;
+import sparrowv.Add;
+import sparrowv.Alloc;
+import sparrowv.Call;
+import sparrowv.ErrorMessage;
+import sparrowv.Goto;
+import sparrowv.IfGoto;
+import sparrowv.Instruction;
+import sparrowv.LabelInstr;
+import sparrowv.LessThan;
+import sparrowv.Load;
+import sparrowv.Move_Id_Reg;
+import sparrowv.Move_Reg_FuncName;
+import sparrowv.Move_Reg_Id;
+import sparrowv.Move_Reg_Integer;
+import sparrowv.Move_Reg_Reg;
+import sparrowv.Multiply;
+import sparrowv.Print;
+import sparrowv.Store;
+import sparrowv.Subtract;
+
+/**
+ * Sparrow-V instructions. Defs and uses mix Register and Identifier tokens;
+ * a call reads its callee, its stack arguments and a2-a7, and writes its result.
+ */
+public final class SparrowVDialect implements Dialect<Instruction> {
+    public static final SparrowVDialect INSTANCE = new SparrowVDialect();
+
+    private static final List<Register> ARGUMENT_REGISTERS = List.of(
+        new Register("a2"), new Register("a3"), new Register("a4"),
+        new Register("a5"), new Register("a6"), new Register("a7"));
+
+    private SparrowVDialect() {
+    }
+
+    @Override
+    public Label label(Instruction instr) {
+        return instr instanceof LabelInstr ? ((LabelInstr) instr).label : null;
+    }
+
+    @Override
+    public Label target(Instruction instr) {
+        if (instr instanceof Goto) return ((Goto) instr).label;
+        if (instr instanceof IfGoto) return ((IfGoto) instr).label;
+        return null;
+    }
+
+    @Override
+    public boolean fallsThrough(Instruction instr) {
+        return !(instr instanceof Goto) && !(instr instanceof ErrorMessage);
+    }
+
+    @Override
+    public List<Object> defs(Instruction instr) {
+        Object def = null;
+        if (instr instanceof Move_Reg_Integer) def = ((Move_Reg_Integer) instr).lhs;
+        if (instr instanceof Move_Reg_FuncName) def = ((Move_Reg_FuncName) instr).lhs;
+        if (instr instanceof Add) def = ((Add) instr).lhs;
+        if (instr instanceof Subtract) def = ((Subtract) instr).lhs;
+        if (instr instanceof Multiply) def = ((Multiply) instr).lhs;
+        if (instr instanceof LessThan) def = ((LessThan) instr).lhs;
+        if (instr instanceof Load) def = ((Load) instr).lhs;
+        if (instr instanceof Move_Reg_Reg) def = ((Move_Reg_Reg) instr).lhs;
+        if (instr instanceof Move_Id_Reg) def = ((Move_Id_Reg) instr).lhs;
+        if (instr instanceof Move_Reg_Id) def = ((Move_Reg_Id) instr).lhs;
+        if (instr instanceof Alloc) def = ((Alloc) instr).lhs;
+        if (instr instanceof Call) def = ((Call) instr).lhs;
+        return def == null ? Collections.emptyList() : List.of(def);
+    }
+
+    @Override
+    public List<Object> uses(Instruction instr) {
+        if (instr instanceof Add) return tokens(((Add) instr).arg1, ((Add) instr).arg2);
+        if (instr instanceof Subtract) return tokens(((Subtract) instr).arg1, ((Subtract) instr).arg2);
+        if (instr instanceof Multiply) return tokens(((Multiply) instr).arg1, ((Multiply) instr).arg2);
+        if (instr instanceof LessThan) return tokens(((LessThan) instr).arg1, ((LessThan) instr).arg2);
+        if (instr instanceof Load) return tokens(((Load) instr).base);
+        if (instr instanceof Store) return tokens(((Store) instr).base, ((Store) instr).rhs);
+        if (instr instanceof Move_Reg_Reg) return tokens(((Move_Reg_Reg) instr).rhs);
+        if (instr instanceof Move_Id_Reg) return tokens(((Move_Id_Reg) instr).rhs);
+        if (instr instanceof Move_Reg_Id) return tokens(((Move_Reg_Id) instr).rhs);
+        if (instr instanceof Alloc) return tokens(((Alloc) instr).size);
+        if (instr instanceof Print) return tokens(((Print) instr).content);
+        if (instr instanceof IfGoto) return tokens(((IfGoto) instr).condition);
+        if (instr instanceof Call) {
+            Call call = (Call) instr;
+            List<Object> uses = new ArrayList<>(call.args.size() + 7);
+            uses.add(call.callee);
+            uses.addAll(call.args);
+            uses.addAll(ARGUMENT_REGISTERS);
+            return uses;
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<Object> tokens(Object... operands) {
+        return List.of(operands);
+    }
+}
@@ -0,0 +1,201 @@
+package Flow;
+
+import java.util.Arrays;
+
+/**
+ * A bit set that stores only its non-zero 64-bit words, sorted by word index.
+ * It has the java.util.BitSet methods the dataflow code needs, but every
+ * operation costs the number of non-zero words rather than the highest index,
+ * so live sets that sit at high indices stay cheap.
+ */
+public final class SparseBitSet implements Cloneable {
+    private int[] keys;
+    private long[] words;
+    private int size;
+
+    public SparseBitSet() {
+        this(4);
+    }
+
+    private SparseBitSet(int capacity) {
+        this.keys = new int[capacity];
+        this.words = new long[capacity];
+    }
+
+    // slot of the word, or -(insertion point) - 1
+    private int find(int key) {
+        return Arrays.binarySearch(this.keys, 0, this.size, key);
+    }
+
+    public boolean get(int index) {
+        int slot = find(index >>> 6);
+        return slot >= 0 && (this.words[slot] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        int key = index >>> 6;
+        int slot = find(key);
+        if (slot >= 0) {
+            this.words[slot] |= 1L << index;
+            return;
+        }
+        slot = -slot - 1;
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size * 2 + 1);
+            this.words = Arrays.copyOf(this.words, this.size * 2 + 1);
+        }
+        System.arraycopy(this.keys, slot, this.keys, slot + 1, this.size - slot);
+        System.arraycopy(this.words, slot, this.words, slot + 1, this.size - slot);
+        this.keys[slot] = key;
+        this.words[slot] = 1L << index;
+        this.size++;
+    }
+
+    // sets every index in [from, to)
+    public void set(int from, int to) {
+        for (int index = from; index < to; index++) {
+            if ((index & 63) == 0 && index + 64 <= to) {
+                this.orWord(index >>> 6, -1L);
+                index += 63;
+            } else {
+                this.set(index);
+            }
+        }
+    }
+
+    private void orWord(int key, long word) {
+        int slot = find(key);
+        if (slot >= 0) {
+            this.words[slot] |= word;
+        } else {
+            this.set(key << 6);
+            this.words[find(key)] |= word;
+        }
+    }
+
+    public void clear(int index) {
+        int slot = find(index >>> 6);
+        if (slot < 0) return;
+        this.words[slot] &= ~(1L << index);
+        if (this.words[slot] == 0) {
+            System.arraycopy(this.keys, slot + 1, this.keys, slot, this.size - slot - 1);
+            System.arraycopy(this.words, slot + 1, this.words, slot, this.size - slot - 1);
+            this.size--;
+        }
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < this.size; i++) count += Long.bitCount(this.words[i]);
+        return count;
+    }
+
+    // first set index at or after from, or -1
+    public int nextSetBit(int from) {
+        int key = from >>> 6;
+        int slot = find(key);
+        if (slot >= 0) {
+            long word = this.words[slot] & (-1L << from);
+            if (word != 0) return (key << 6) + Long.numberOfTrailingZeros(word);
+            slot++;
+        } else {
+            slot = -slot - 1;
+        }
+        return slot < this.size ? (this.keys[slot] << 6) + Long.numberOfTrailingZeros(this.words[slot]) : -1;
+    }
+
+    public void or(SparseBitSet other) {
+        if (other.size == 0) return;
+        this.merge(other, 0);
+    }
+
+    public void and(SparseBitSet other) {
+        this.merge(other, 1);
+    }
+
+    public void andNot(SparseBitSet other) {
+        if (other.size == 0 || this.size == 0) return;
+        this.merge(other, 2);
+    }
+
+    // one pass over both word lists: 0 = or, 1 = and, 2 = and not
+    private void merge(SparseBitSet other, int op) {
+        int[] keys = new int[op == 0 ? this.size + other.size : this.size];
+        long[] words = new long[keys.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.size || j < other.size) {
+            int a = i < this.size ? this.keys[i] : Integer.MAX_VALUE;
+            int b = j < other.size ? other.keys[j] : Integer.MAX_VALUE;
+            long word;
+            int key;
+            if (a == b) {
+                key = a;
+                long x = this.words[i++];
+                long y = other.words[j++];
+                word = op == 0 ? x | y : op == 1 ? x & y : x & ~y;
+            } else if (a < b) {
+                key = a;
+                word = op == 1 ? 0 : this.words[i];
+                i++;
+            } else {
+                key = b;
+                word = op == 0 ? other.words[j] : 0;
+                j++;
+            }
+            if (word != 0) {
+                keys[n] = key;
+                words[n++] = word;
+            }
+        }
+        this.keys = keys;
+        this.words = words;
+        this.size = n;
+    }
+
+    @Override
+    public SparseBitSet clone() {
+        SparseBitSet copy = new SparseBitSet(Math.max(this.size, 1));
+        System.arraycopy(this.keys, 0, copy.keys, 0, this.size);
+        System.arraycopy(this.words, 0, copy.words, 0, this.size);
+        copy.size = this.size;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SparseBitSet)) return false;
+        SparseBitSet other = (SparseBitSet) o;
+        if (this.size != other.size) return false;
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i] != other.keys[i] || this.words[i] != other.words[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = 1234;
+        for (int i = 0; i < this.size; i++) h ^= this.words[i] * (this.keys[i] + 1);
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (text.length() > 1) text.append(", ");
+            text.append(i);
+        }
+        return text.append('}').toString();
+    }
+}
@@ -0,0 +1,92 @@
+package Flow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import IR.token.Label;
+
+/**
+ * Dense int ids for the tokens of one function. The IR token classes compare
+ * by identity and only expose their text through toString(), so the pool maps
+ * each token object to its id once and later lookups of the same object skip
+ * the string entirely. Identifiers, labels and function names are numbered
+ * separately from 0; two tokens are the same symbol exactly when their ids match.
+ */
+public class SymbolPool {
+    private final IdentityHashMap<Object, Integer> seen = new IdentityHashMap<>();
+    private final Names identifiers = new Names();
+    private final Names labels = new Names();
+    private final Names functions = new Names();
+
+    private static class Names {
+        final HashMap<String, Integer> ids = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+
+        int intern(String name) {
+            Integer id = this.ids.get(name);
+            if (id == null) {
+                id = this.names.size();
+                this.ids.put(name, id);
+                this.names.add(name);
+            }
+            return id;
+        }
+    }
+
+    private int intern(Object token, Names names) {
+        Integer id = this.seen.get(token);
+        if (id == null) {
+            id = names.intern(token.toString());
+            this.seen.put(token, id);
+        }
+        return id;
+    }
+
+    public int id(Identifier identifier) {
+        return intern(identifier, this.identifiers);
+    }
+
+    public int label(Label label) {
+        return intern(label, this.labels);
+    }
+
+    public int function(FunctionName function) {
+        return intern(function, this.functions);
+    }
+
+    // id of an identifier already in the pool, or -1
+    public int find(Identifier identifier) {
+        Integer id = this.seen.get(identifier);
+        if (id != null) return id;
+        id = this.identifiers.ids.get(identifier.toString());
+        return id == null ? -1 : id;
+    }
+
+    public String name(int id) {
+        return this.identifiers.names.get(id);
+    }
+
+    public String labelName(int label) {
+        return this.labels.names.get(label);
+    }
+
+    public String functionName(int function) {
+        return this.functions.names.get(function);
+    }
+
+    public int size() {
+        return this.identifiers.names.size();
+    }
+
+    public int labelCount() {
+        return this.labels.names.size();
+    }
+
+    public int functionCount() {
+        return this.functions.names.size();
+    }
+}
@@ -0,0 +1,600 @@
+package IR;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import IR.token.Label;
+import IR.token.Register;
+import IR.visitor.SparrowConstructor;
+import IR.visitor.SparrowVConstructor;
+
+/**
+ * Builds sparrow and sparrowv programs straight from the source bytes, with a
+ * hand-written lexer and a recursive descent parser and no IR.syntaxtree in
+ * between. It covers the ASCII subset of the JavaCC grammar; input it does not
+ * accept, including every syntax error, non-ASCII text and unicode escapes, is
+ * handed to ReentrantSparrowParser, so the language and the exceptions are
+ * exactly the two-phase parser's.
+ */
+public final class SparrowLoader {
+    private static final int EOF = 0;
+    private static final int IDENTIFIER = 1;
+    private static final int INTEGER = 2;
+    private static final int STRING = 3;
+    private static final int FUNC = 4;
+    private static final int IF0 = 5;
+    private static final int GOTO = 6;
+    private static final int CALL = 7;
+    private static final int ALLOC = 8;
+    private static final int PRINT = 9;
+    private static final int ERROR = 10;
+    private static final int RETURN = 11;
+    // the remaining kinds are punctuation, numbered by their character
+    private static final String PUNCTUATION = "()[]{};.=<+-@:*";
+
+    private final byte[] source;
+    private int pos = 0;
+    private int kind;
+    private int start;
+    private int end;
+    private int value;
+    private String[] names = new String[1024];
+    private int nameCount = 0;
+
+    // thrown wherever the fast path stops, to rerun the input through the JavaCC parser
+    private static class Fallback extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Fallback() {
+            super(null, null, false, false);
+        }
+    }
+
+    private SparrowLoader(byte[] source) {
+        this.source = source;
+    }
+
+    public static sparrow.Program loadSparrow(InputStream in) throws ParseException, IOException {
+        return loadSparrow(in.readAllBytes());
+    }
+
+    public static sparrow.Program loadSparrow(byte[] source) throws ParseException {
+        try {
+            return new SparrowLoader(source).program(new SparrowTarget());
+        } catch (Fallback e) {
+            return parseSparrow(source);
+        }
+    }
+
+    public static sparrowv.Program loadSparrowV(InputStream in) throws ParseException, IOException {
+        return loadSparrowV(in.readAllBytes());
+    }
+
+    public static sparrowv.Program loadSparrowV(byte[] source) throws ParseException {
+        try {
+            return new SparrowLoader(source).program(new SparrowVTarget());
+        } catch (Fallback e) {
+            return parseSparrowV(source);
+        }
+    }
+
+    /**
+     * The two-phase path: a JTB tree from ReentrantSparrowParser, then
+     * SparrowConstructor.
+     */
+    public static sparrow.Program parseSparrow(byte[] source) throws ParseException {
+        SparrowConstructor constructor = new SparrowConstructor();
+        new ReentrantSparrowParser(new ByteArrayInputStream(source)).Program().accept(constructor);
+        return constructor.getProgram();
+    }
+
+    public static sparrowv.Program parseSparrowV(byte[] source) throws ParseException {
+        SparrowVConstructor constructor = new SparrowVConstructor();
+        new ReentrantSparrowParser(new ByteArrayInputStream(source)).Program().accept(constructor);
+        return constructor.getProgram();
+    }
+
+    private <P, F, I> P program(Target<P, F, I> target) {
+        this.advance();
+        List<F> functions = new ArrayList<>();
+        while (this.kind != EOF) {
+            this.expect(FUNC);
+            FunctionName name = new FunctionName(this.identifier());
+            this.expect('(');
+            List<Identifier> parameters = new ArrayList<>();
+            while (this.kind == IDENTIFIER) parameters.add(new Identifier(this.identifier()));
+            this.expect(')');
+            List<I> body = new ArrayList<>();
+            while (this.kind != RETURN) body.add(this.instruction(target));
+            this.advance();
+            functions.add(target.function(name, parameters, body, new Identifier(this.identifier())));
+        }
+        return target.program(functions);
+    }
+
+    private <I> I instruction(Target<?, ?, I> target) {
+        switch (this.kind) {
+            case IDENTIFIER:
+                break;
+            case '[': {
+                this.advance();
+                String base = this.identifier();
+                this.expect('+');
+                int offset = this.integer();
+                this.expect(']');
+                this.expect('=');
+                return target.store(base, offset, this.identifier());
+            }
+            case PRINT: {
+                this.advance();
+                this.expect('(');
+                String value = this.identifier();
+                this.expect(')');
+                return target.print(value);
+            }
+            case ERROR: {
+                this.advance();
+                this.expect('(');
+                if (this.kind != STRING) throw new Fallback();
+                String message = this.text();
+                this.advance();
+                this.expect(')');
+                return target.error(message);
+            }
+            case GOTO:
+                this.advance();
+                return target.jump(new Label(this.identifier()));
+            case IF0: {
+                this.advance();
+                String condition = this.identifier();
+                this.expect(GOTO);
+                return target.branch(condition, new Label(this.identifier()));
+            }
+            default:
+                throw new Fallback();
+        }
+
+        String lhs = this.identifier();
+        if (this.kind == ':') {
+            this.advance();
+            return target.label(new Label(lhs));
+        }
+        this.expect('=');
+        switch (this.kind) {
+            case INTEGER:
+                return target.setInteger(lhs, this.integer());
+            case '@':
+                this.advance();
+                return target.setFunction(lhs, new FunctionName(this.identifier()));
+            case '[': {
+                this.advance();
+                String base = this.identifier();
+                this.expect('+');
+                int offset = this.integer();
+                this.expect(']');
+                return target.load(lhs, base, offset);
+            }
+            case ALLOC: {
+                this.advance();
+                this.expect('(');
+                String size = this.identifier();
+                this.expect(')');
+                return target.alloc(lhs, size);
+            }
+            case CALL: {
+                this.advance();
+                String callee = this.identifier();
+                this.expect('(');
+                List<Identifier> arguments = new ArrayList<>();
+                while (this.kind == IDENTIFIER) arguments.add(new Identifier(this.identifier()));
+                this.expect(')');
+                return target.call(lhs, callee, arguments);
+            }
+            case IDENTIFIER: {
+                String rhs = this.identifier();
+                int operator = this.kind;
+                if (operator != '+' && operator != '-' && operator != '*' && operator != '<') {
+                    return target.move(lhs, rhs);
+                }
+                this.advance();
+                return target.arithmetic(operator, lhs, rhs, this.identifier());
+            }
+            default:
+                throw new Fallback();
+        }
+    }
+
+    private void expect(int kind) {
+        if (this.kind != kind) throw new Fallback();
+        this.advance();
+    }
+
+    private String identifier() {
+        if (this.kind != IDENTIFIER) throw new Fallback();
+        String name = this.text();
+        this.advance();
+        return name;
+    }
+
+    private int integer() {
+        if (this.kind != INTEGER) throw new Fallback();
+        int value = this.value;
+        this.advance();
+        return value;
+    }
+
+    // the current token's text, one String per distinct spelling
+    private String text() {
+        byte[] source = this.source;
+        int hash = 0;
+        for (int i = this.start; i < this.end; i++) hash = 31 * hash + source[i];
+        int mask = this.names.length - 1;
+        int slot = hash & mask;
+        for (String name = this.names[slot]; name != null; name = this.names[slot]) {
+            if (name.hashCode() == hash && this.matches(name, this.start, this.end)) return name;
+            slot = (slot + 1) & mask;
+        }
+        String name = new String(source, this.start, this.end - this.start, StandardCharsets.ISO_8859_1);
+        this.names[slot] = name;
+        if (++this.nameCount * 2 > this.names.length) this.rehash();
+        return name;
+    }
+
+    private void rehash() {
+        String[] names = new String[this.names.length * 2];
+        int mask = names.length - 1;
+        for (String name : this.names) {
+            if (name == null) continue;
+            int slot = name.hashCode() & mask;
+            while (names[slot] != null) slot = (slot + 1) & mask;
+            names[slot] = name;
+        }
+        this.names = names;
+    }
+
+    private boolean matches(String word, int start, int end) {
+        if (word.length() != end - start) return false;
+        for (int i = start; i < end; i++) {
+            if (this.source[i] != word.charAt(i - start)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Scans the next token into kind, start and end, skipping whitespace and
+     * comments the way ReentrantSparrowParserTokenManager does.
+     */
+    private void advance() {
+        byte[] source = this.source;
+        int p = this.pos;
+        while (true) {
+            if (p == source.length) {
+                this.kind = EOF;
+                this.start = this.end = this.pos = p;
+                return;
+            }
+            int c = source[p];
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+                p++;
+            } else if (c == '/') {
+                p = this.comment(p);
+            } else {
+                break;
+            }
+        }
+
+        int start = p;
+        int c = source[p++];
+        if (identifierStart(c)) {
+            while (p < source.length && (identifierStart(source[p]) || digit(source[p]))) p++;
+            this.kind = this.keyword(start, p);
+        } else if (c == '0') {
+            this.kind = INTEGER;
+            this.value = 0;
+        } else if (digit(c)) {
+            long value = c - '0';
+            while (p < source.length && digit(source[p])) {
+                value = value * 10 + source[p++] - '0';
+                if (value > Integer.MAX_VALUE) throw new Fallback();
+            }
+            this.kind = INTEGER;
+            this.value = (int) value;
+        } else if (c == '"') {
+            p = this.string(p);
+            this.kind = STRING;
+        } else if (c > 0 && PUNCTUATION.indexOf(c) >= 0) {
+            this.kind = c;
+        } else {
+            throw new Fallback();
+        }
+        this.start = start;
+        this.end = p;
+        this.pos = p;
+    }
+
+    // the end of the comment starting at p
+    private int comment(int p) {
+        byte[] source = this.source;
+        if (p + 1 == source.length) throw new Fallback();
+        if (source[p + 1] == '/') {
+            for (p += 2; p < source.length; p++) {
+                int c = source[p];
+                if (c == '\n' || c == '\r') return p;
+                this.commentCharacter(p);
+            }
+        } else if (source[p + 1] == '*') {
+            // "/**" opens a formal comment, which cannot close on its own third character
+            // and so runs past a "/**/" to the next "*/" when there is one
+            boolean formal = p + 2 < source.length && source[p + 2] == '*';
+            int start = p;
+            for (p += formal ? 3 : 2; p + 1 < source.length; p++) {
+                if (source[p] == '*' && source[p + 1] == '/') return p + 2;
+                this.commentCharacter(p);
+            }
+            if (formal && start + 3 < source.length && source[start + 3] == '/') return start + 4;
+        }
+        throw new Fallback();
+    }
+
+    private void commentCharacter(int p) {
+        if (this.source[p] < 0 || this.source[p] == '\\' && p + 1 < this.source.length && this.source[p + 1] == 'u') {
+            throw new Fallback();
+        }
+    }
+
+    // the end of the string literal whose opening quote is just before p
+    private int string(int p) {
+        byte[] source = this.source;
+        while (p < source.length) {
+            int c = source[p++];
+            if (c == '"') return p;
+            if (c == '\\') {
+                if (p == source.length || source[p] != 'n' && source[p] != '"') throw new Fallback();
+                p++;
+            } else if (!stringCharacter(c)) {
+                throw new Fallback();
+            }
+        }
+        throw new Fallback();
+    }
+
+    private int keyword(int start, int end) {
+        switch (end - start) {
+            case 3:
+                if (this.matches("if0", start, end)) return IF0;
+                break;
+            case 4:
+                if (this.matches("func", start, end)) return FUNC;
+                if (this.matches("goto", start, end)) return GOTO;
+                if (this.matches("call", start, end)) return CALL;
+                break;
+            case 5:
+                if (this.matches("alloc", start, end)) return ALLOC;
+                if (this.matches("print", start, end)) return PRINT;
+                if (this.matches("error", start, end)) return ERROR;
+                break;
+            case 6:
+                if (this.matches("return", start, end)) return RETURN;
+                break;
+        }
+        return IDENTIFIER;
+    }
+
+    private static boolean identifierStart(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || c == '$';
+    }
+
+    private static boolean digit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // the printable ASCII the grammar allows inside a string literal
+    private static boolean stringCharacter(int c) {
+        return identifierStart(c) || digit(c) || c > 0 && " ()+,./:;<>?[]{}".indexOf(c) >= 0;
+    }
+
+    /**
+     * The nodes one dialect builds for each instruction, with parents set as
+     * SetParents would.
+     */
+    private abstract static class Target<P, F, I> {
+        abstract P program(List<F> functions);
+
+        abstract F function(FunctionName name, List<Identifier> parameters, List<I> body, Identifier returned);
+
+        abstract I label(Label label);
+
+        abstract I setInteger(String lhs, int value);
+
+        abstract I setFunction(String lhs, FunctionName function);
+
+        abstract I arithmetic(int operator, String lhs, String left, String right);
+
+        abstract I load(String lhs, String base, int offset);
+
+        abstract I store(String base, int offset, String rhs);
+
+        abstract I move(String lhs, String rhs);
+
+        abstract I alloc(String lhs, String size);
+
+        abstract I print(String value);
+
+        abstract I error(String message);
+
+        abstract I jump(Label label);
+
+        abstract I branch(String condition, Label label);
+
+        abstract I call(String lhs, String callee, List<Identifier> arguments);
+    }
+
+    private static class SparrowTarget extends Target<sparrow.Program, sparrow.FunctionDecl, sparrow.Instruction> {
+        sparrow.Program program(List<sparrow.FunctionDecl> functions) {
+            sparrow.Program program = new sparrow.Program(functions);
+            for (sparrow.FunctionDecl function : functions) function.parent = program;
+            return program;
+        }
+
+        sparrow.FunctionDecl function(FunctionName name, List<Identifier> parameters,
+                                      List<sparrow.Instruction> body, Identifier returned) {
+            sparrow.Block block = new sparrow.Block(body, returned);
+            for (sparrow.Instruction instruction : body) instruction.parent = block;
+            sparrow.FunctionDecl function = new sparrow.FunctionDecl(name, parameters, block);
+            block.parent = function;
+            return function;
+        }
+
+        sparrow.Instruction label(Label label) {
+            return new sparrow.LabelInstr(label);
+        }
+
+        sparrow.Instruction setInteger(String lhs, int value) {
+            return new sparrow.Move_Id_Integer(new Identifier(lhs), value);
+        }
+
+        sparrow.Instruction setFunction(String lhs, FunctionName function) {
+            return new sparrow.Move_Id_FuncName(new Identifier(lhs), function);
+        }
+
+        sparrow.Instruction arithmetic(int operator, String lhs, String left, String right) {
+            Identifier target = new Identifier(lhs);
+            Identifier a = new Identifier(left);
+            Identifier b = new Identifier(right);
+            switch (operator) {
+                case '+':
+                    return new sparrow.Add(target, a, b);
+                case '-':
+                    return new sparrow.Subtract(target, a, b);
+                case '*':
+                    return new sparrow.Multiply(target, a, b);
+                default:
+                    return new sparrow.LessThan(target, a, b);
+            }
+        }
+
+        sparrow.Instruction load(String lhs, String base, int offset) {
+            return new sparrow.Load(new Identifier(lhs), new Identifier(base), offset);
+        }
+
+        sparrow.Instruction store(String base, int offset, String rhs) {
+            return new sparrow.Store(new Identifier(base), offset, new Identifier(rhs));
+        }
+
+        sparrow.Instruction move(String lhs, String rhs) {
+            return new sparrow.Move_Id_Id(new Identifier(lhs), new Identifier(rhs));
+        }
+
+        sparrow.Instruction alloc(String lhs, String size) {
+            return new sparrow.Alloc(new Identifier(lhs), new Identifier(size));
+        }
+
+        sparrow.Instruction print(String value) {
+            return new sparrow.Print(new Identifier(value));
+        }
+
+        sparrow.Instruction error(String message) {
+            return new sparrow.ErrorMessage(message);
+        }
+
+        sparrow.Instruction jump(Label label) {
+            return new sparrow.Goto(label);
+        }
+
+        sparrow.Instruction branch(String condition, Label label) {
+            return new sparrow.IfGoto(new Identifier(condition), label);
+        }
+
+        sparrow.Instruction call(String lhs, String callee, List<Identifier> arguments) {
+            return new sparrow.Call(new Identifier(lhs), new Identifier(callee), arguments);
+        }
+    }
+
+    // mirrors SparrowVConstructor, which reads every move as Move_Id_Reg
+    private static class SparrowVTarget extends Target<sparrowv.Program, sparrowv.FunctionDecl, sparrowv.Instruction> {
+        sparrowv.Program program(List<sparrowv.FunctionDecl> functions) {
+            sparrowv.Program program = new sparrowv.Program(functions);
+            for (sparrowv.FunctionDecl function : functions) function.parent = program;
+            return program;
+        }
+
+        sparrowv.FunctionDecl function(FunctionName name, List<Identifier> parameters,
+                                       List<sparrowv.Instruction> body, Identifier returned) {
+            sparrowv.Block block = new sparrowv.Block(body, returned);
+            for (sparrowv.Instruction instruction : body) instruction.parent = block;
+            sparrowv.FunctionDecl function = new sparrowv.FunctionDecl(name, parameters, block);
+            block.parent = function;
+            return function;
+        }
+
+        sparrowv.Instruction label(Label label) {
+            return new sparrowv.LabelInstr(label);
+        }
+
+        sparrowv.Instruction setInteger(String lhs, int value) {
+            return new sparrowv.Move_Reg_Integer(new Register(lhs), value);
+        }
+
+        sparrowv.Instruction setFunction(String lhs, FunctionName function) {
+            return new sparrowv.Move_Reg_FuncName(new Register(lhs), function);
+        }
+
+        sparrowv.Instruction arithmetic(int operator, String lhs, String left, String right) {
+            Register target = new Register(lhs);
+            Register a = new Register(left);
+            Register b = new Register(right);
+            switch (operator) {
+                case '+':
+                    return new sparrowv.Add(target, a, b);
+                case '-':
+                    return new sparrowv.Subtract(target, a, b);
+                case '*':
+                    return new sparrowv.Multiply(target, a, b);
+                default:
+                    return new sparrowv.LessThan(target, a, b);
+            }
+        }
+
+        sparrowv.Instruction load(String lhs, String base, int offset) {
+            return new sparrowv.Load(new Register(lhs), new Register(base), offset);
+        }
+
+        sparrowv.Instruction store(String base, int offset, String rhs) {
+            return new sparrowv.Store(new Register(base), offset, new Register(rhs));
+        }
+
+        sparrowv.Instruction move(String lhs, String rhs) {
+            return new sparrowv.Move_Id_Reg(new Identifier(lhs), new Register(rhs));
+        }
+
+        sparrowv.Instruction alloc(String lhs, String size) {
+            return new sparrowv.Alloc(new Register(lhs), new Register(size));
+        }
+
+        sparrowv.Instruction print(String value) {
+            return new sparrowv.Print(new Register(value));
+        }
+
+        sparrowv.Instruction error(String message) {
+            return new sparrowv.ErrorMessage(message);
+        }
+
+        sparrowv.Instruction jump(Label label) {
+            return new sparrowv.Goto(label);
+        }
+
+        sparrowv.Instruction branch(String condition, Label label) {
+            return new sparrowv.IfGoto(new Register(condition), label);
+        }
+
+        sparrowv.Instruction call(String lhs, String callee, List<Identifier> arguments) {
+            return new sparrowv.Call(new Register(lhs), new Register(callee), arguments);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package IR;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import IR.token.Identifier;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Block;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Program;
+import sparrow.Store;
+import sparrow.Subtract;
+import sparrow.visitor.Visitor;
+
+/**
+ * Writes a Sparrow program into an Appendable in one pass. The output is exactly
+ * what Program.toString() returns, but toString() builds every function, block
+ * and call by repeated String concatenation, which is quadratic in their size.
+ */
+public class SparrowPrinter implements Visitor {
+    private final Appendable out;
+
+    public SparrowPrinter(Appendable out) {
+        this.out = out;
+    }
+
+    public static void print(Program program, Appendable out) {
+        program.accept(new SparrowPrinter(out));
+    }
+
+    private void write(String text) {
+        try {
+            this.out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // identifiers separated by single spaces, as toString() joins parameters and arguments
+    private void words(List<Identifier> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) this.write(" ");
+            this.write(ids.get(i).toString());
+        }
+    }
+
+    private void line(Instruction instr) {
+        this.write(instr.toString());
+        this.write("\n");
+    }
+
+    @Override
+    public void visit(Program n) {
+        for (FunctionDecl function : n.funDecls) function.accept(this);
+    }
+
+    @Override
+    public void visit(FunctionDecl n) {
+        this.write("func ");
+        this.write(n.functionName.toString());
+        this.write("(");
+        this.words(n.formalParameters);
+        this.write(")\n");
+        n.block.accept(this);
+        this.write("\n\n");
+    }
+
+    @Override
+    public void visit(Block n) {
+        for (Instruction instr : n.instructions) instr.accept(this);
+        this.write("      return ");
+        this.write(n.return_id.toString());
+    }
+
+    @Override
+    public void visit(Call n) {
+        this.write(n.lhs.toString());
+        this.write(" = call ");
+        this.write(n.callee.toString());
+        this.write("(");
+        this.words(n.args);
+        this.write(")\n");
+    }
+
+    @Override
+    public void visit(LabelInstr n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Move_Id_Integer n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Move_Id_FuncName n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Add n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Subtract n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Multiply n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(LessThan n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Load n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Store n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Move_Id_Id n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Alloc n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Print n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(ErrorMessage n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(Goto n) {
+        this.line(n);
+    }
+
+    @Override
+    public void visit(IfGoto n) {
+        this.line(n);
+    }
+}
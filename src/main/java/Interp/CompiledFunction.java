@@ -0,0 +1,54 @@
+package Interp;
+
+/**
+ * Base class of the classes {@link FunctionCompiler} generates, one per Sparrow
+ * function. The generated method keeps identifiers in JVM locals and calls back
+ * here for everything that touches the heap, prints or can fail, so values and
+ * error messages are the interpreter's.
+ */
+public abstract class CompiledFunction {
+    protected static final long UNDEFINED = Machine.UNDEFINED;
+
+    private SparrowInterpreter interpreter;
+    private SparrowInterpreter.Function function;
+
+    void bind(SparrowInterpreter interpreter, SparrowInterpreter.Function function) {
+        this.interpreter = interpreter;
+        this.function = function;
+    }
+
+    /**
+     * Runs the function; arguments holds at least its parameters.
+     */
+    public abstract long invoke(long[] arguments);
+
+    protected final RuntimeException wrongType(int instr, String instruction) {
+        return Machine.wrongType(this.function.source[instr], instruction);
+    }
+
+    protected final RuntimeException error(int message) {
+        return new Machine.Failure(this.function.messages[message]);
+    }
+
+    protected final long load(long base, int offset, int instr) {
+        return this.interpreter.load(this.function.source[instr], base, offset);
+    }
+
+    protected final void store(long base, int offset, long value, int instr) {
+        this.interpreter.store(this.function.source[instr], base, offset, value);
+    }
+
+    protected final long alloc(long size, int instr) {
+        return this.interpreter.alloc(this.function.source[instr], size);
+    }
+
+    protected final void print(long value, int instr) {
+        this.interpreter.print(this.function.source[instr], value);
+    }
+
+    protected final long call(long callee, int instr, long... arguments) {
+        SparrowInterpreter.Function target =
+            this.interpreter.callee(this.function.source[instr], callee, arguments.length);
+        return this.interpreter.invoke(target, arguments);
+    }
+}
@@ -0,0 +1,283 @@
+package Interp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import Interp.SparrowInterpreter.Function;
+
+/**
+ * Translates resolved Sparrow functions to Java source, compiles them in memory
+ * with the JDK compiler and loads each batch in a fresh class loader. Every
+ * identifier becomes a long local and every jump target a case of a switch in
+ * a loop, which the JIT turns into direct branches. Functions too long for the
+ * JIT to compile, and any javac rejects, stay interpreted.
+ */
+final class FunctionCompiler {
+    // HotSpot does not JIT methods over 8000 bytes of bytecode, and an instruction takes about 18
+    static final int MAX_INSTRUCTIONS = 400;
+
+    private final SparrowInterpreter interpreter;
+    private final JavaCompiler javac;
+    private int compiled;
+    private int rejected;
+    private long nanos;
+
+    private FunctionCompiler(SparrowInterpreter interpreter, JavaCompiler javac) {
+        this.interpreter = interpreter;
+        this.javac = javac;
+    }
+
+    // null when running on a JRE without javac
+    static FunctionCompiler create(SparrowInterpreter interpreter) {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        return javac == null ? null : new FunctionCompiler(interpreter, javac);
+    }
+
+    int getCompiled() {
+        return this.compiled;
+    }
+
+    int getRejected() {
+        return this.rejected;
+    }
+
+    long getNanos() {
+        return this.nanos;
+    }
+
+    void compile(List<Function> batch) {
+        long start = System.nanoTime();
+        Function[] all = this.interpreter.getFunctions();
+        HashMap<JavaFileObject, Function> sources = new HashMap<>();
+        for (Function function : batch) {
+            if (function.code.length / 4 > MAX_INSTRUCTIONS) {
+                this.rejected++;
+                continue;
+            }
+            int index = 0;
+            while (all[index] != function) index++;
+            String className = "F" + index;
+            sources.put(new Source(className, source(className, function)), function);
+        }
+
+        HashMap<String, ByteArrayOutputStream> classes = new HashMap<>();
+        while (!sources.isEmpty()) {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-g:none",
+                "-proc:none", "-nowarn");
+            classes.clear();
+            if (this.javac.getTask(null, new Output(this.javac, classes), diagnostics, options, null,
+                    sources.keySet()).call()) {
+                break;
+            }
+            HashSet<Object> failed = new HashSet<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) failed.add(diagnostic.getSource());
+            }
+            if (failed.isEmpty()) failed.addAll(sources.keySet());
+            this.rejected += failed.size();
+            sources.keySet().removeAll(failed);
+        }
+
+        Loader loader = new Loader(classes);
+        for (JavaFileObject source : sources.keySet()) {
+            Function function = sources.get(source);
+            try {
+                CompiledFunction code = (CompiledFunction) loader.loadClass(((Source) source).className)
+                    .getDeclaredConstructor().newInstance();
+                code.bind(this.interpreter, function);
+                function.compiled = code;
+                this.compiled++;
+            } catch (ReflectiveOperationException e) {
+                this.rejected++;
+            }
+        }
+        this.nanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Java source of a class whose invoke method runs function. Code after a
+     * goto or error that no jump reaches is dropped, as javac would reject it.
+     */
+    static String source(String className, Function function) {
+        int[] code = function.code;
+        int length = code.length / 4;
+        boolean[] target = new boolean[length + 1];
+        for (int pc = 0; pc < code.length; pc += 4) {
+            if (code[pc] == SparrowInterpreter.GOTO) target[code[pc + 1] / 4] = true;
+            if (code[pc] == SparrowInterpreter.IF0) target[code[pc + 2] / 4] = true;
+        }
+
+        StringBuilder java = new StringBuilder();
+        java.append("public final class ").append(className).append(" extends Interp.CompiledFunction {\n");
+        java.append("    public long invoke(long[] arguments) {\n");
+        for (int slot = 0; slot < function.slots; slot++) {
+            java.append("        long v").append(slot).append(" = ");
+            java.append(slot < function.parameters ? "arguments[" + slot + "]" : "UNDEFINED").append(";\n");
+        }
+        java.append("        int pc = 0;\n");
+        java.append("        loop:\n");
+        java.append("        while (true) {\n");
+        java.append("            switch (pc) {\n");
+        java.append("            case 0:\n");
+
+        boolean reachable = true;
+        for (int i = 0; i <= length; i++) {
+            if (i > 0 && target[i]) {
+                java.append("            case ").append(i).append(":\n");
+                reachable = true;
+            }
+            if (!reachable) continue;
+            if (i == length) {
+                java.append("                return v").append(function.returned).append(";\n");
+                break;
+            }
+            int a = code[4 * i + 1];
+            int b = code[4 * i + 2];
+            int c = code[4 * i + 3];
+            java.append("                ");
+            switch (code[4 * i]) {
+                case SparrowInterpreter.CONST:
+                    java.append(String.format("v%d = %dL;", a, Machine.integer(b)));
+                    break;
+                case SparrowInterpreter.FUNC:
+                    java.append(String.format("v%d = %dL;", a, Machine.function(b)));
+                    break;
+                case SparrowInterpreter.ADD:
+                    java.append(String.format("if ((v%3$d >> 32) != 0 || v%2$d < 0) throw wrongType(%4$d, \"Add\"); "
+                        + "v%1$d = (v%2$d & 0xFFFFFFFF00000000L) | ((int) v%2$d + (int) v%3$d & 0xFFFFFFFFL);",
+                        a, b, c, i));
+                    break;
+                case SparrowInterpreter.SUB:
+                    java.append(arithmetic(a, b, c, i, "-", "Subtract"));
+                    break;
+                case SparrowInterpreter.MUL:
+                    java.append(arithmetic(a, b, c, i, "*", "Multiply"));
+                    break;
+                case SparrowInterpreter.LT:
+                    java.append(String.format("if (((v%2$d | v%3$d) >> 32) != 0) throw wrongType(%4$d, \"LessThan\"); "
+                        + "v%1$d = (int) v%2$d < (int) v%3$d ? 1L : 0L;", a, b, c, i));
+                    break;
+                case SparrowInterpreter.LOAD:
+                    java.append(String.format("v%d = load(v%d, %d, %d);", a, b, c, i));
+                    break;
+                case SparrowInterpreter.STORE:
+                    java.append(String.format("store(v%d, %d, v%d, %d);", a, b, c, i));
+                    break;
+                case SparrowInterpreter.MOVE:
+                    java.append(String.format("v%d = v%d;", a, b));
+                    break;
+                case SparrowInterpreter.ALLOC:
+                    java.append(String.format("v%d = alloc(v%d, %d);", a, b, i));
+                    break;
+                case SparrowInterpreter.PRINT:
+                    java.append(String.format("print(v%d, %d);", a, i));
+                    break;
+                case SparrowInterpreter.ERROR:
+                    java.append(String.format("throw error(%d);", a));
+                    reachable = false;
+                    break;
+                case SparrowInterpreter.GOTO:
+                    java.append(String.format("pc = %d; continue loop;", a / 4));
+                    reachable = false;
+                    break;
+                case SparrowInterpreter.IF0:
+                    java.append(String.format("if (v%1$d == 0) { pc = %2$d; continue loop; } "
+                        + "if (v%1$d == UNDEFINED) throw wrongType(%3$d, \"IfGoto\");", a, b / 4, i));
+                    break;
+                case SparrowInterpreter.CALL: {
+                    java.append(String.format("v%d = call(v%d, %d", a, b, i));
+                    for (int argument : function.arguments[c]) java.append(", v").append(argument);
+                    java.append(");");
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[4 * i]);
+            }
+            java.append('\n');
+        }
+
+        java.append("            default:\n");
+        java.append("                throw new IllegalStateException();\n");
+        java.append("            }\n");
+        java.append("        }\n");
+        java.append("    }\n");
+        java.append("}\n");
+        return java.toString();
+    }
+
+    private static String arithmetic(int a, int b, int c, int i, String operator, String instruction) {
+        return String.format("if (((v%2$d | v%3$d) >> 32) != 0) throw wrongType(%4$d, \"%6$s\"); "
+            + "v%1$d = (int) v%2$d %5$s (int) v%3$d & 0xFFFFFFFFL;", a, b, c, i, operator, instruction);
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        final String className;
+        private final String text;
+
+        Source(String className, String text) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.className = className;
+            this.text = text;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return this.text;
+        }
+    }
+
+    // keeps the class files javac writes in memory
+    private static class Output extends ForwardingJavaFileManager<JavaFileManager> {
+        private final HashMap<String, ByteArrayOutputStream> classes;
+
+        Output(JavaCompiler javac, HashMap<String, ByteArrayOutputStream> classes) {
+            super(javac.getStandardFileManager(null, null, null));
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("bytes:///" + className + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    Output.this.classes.put(className, bytes);
+                    return bytes;
+                }
+            };
+        }
+    }
+
+    private static class Loader extends ClassLoader {
+        private final HashMap<String, ByteArrayOutputStream> classes;
+
+        Loader(HashMap<String, ByteArrayOutputStream> classes) {
+            super(CompiledFunction.class.getClassLoader());
+            this.classes = new HashMap<>(classes);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            ByteArrayOutputStream bytes = this.classes.get(name);
+            if (bytes == null) throw new ClassNotFoundException(name);
+            byte[] code = bytes.toByteArray();
+            return this.defineClass(name, code, 0, code.length);
+        }
+    }
+}
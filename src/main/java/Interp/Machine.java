@@ -0,0 +1,173 @@
+package Interp;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * What the Sparrow and Sparrow-V interpreters share: tagged values, the heap
+ * arena, per-opcode counters and the reference interpreter's output and error
+ * messages.
+ * <p>
+ * Values are tagged longs. The high half is 0 for an integer, the block number
+ * plus one for a pointer (low half = byte offset) and minus the function index
+ * minus one for a function. The heap is one growable long[] arena of 4-byte
+ * words with a base and length per allocated block, so pointers print and fail
+ * bounds checks the way misc/sparrow.jar does.
+ */
+public abstract class Machine {
+    static final long UNDEFINED = (long) Integer.MIN_VALUE << 32;
+
+    private final String[] opcodes;
+    final long[] executed;
+    private long nanos;
+    private PrintStream out;
+
+    private long[] heap = new long[1024];
+    private int heapTop = 0;
+    private int[] blockBase = new int[64];
+    private int[] blockWords = new int[64];
+    private int blocks = 0;
+
+    static class Failure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Failure(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    Machine(String[] opcodes) {
+        this.opcodes = opcodes;
+        this.executed = new long[opcodes.length];
+    }
+
+    // the static error to report instead of running, or null
+    abstract String invalid();
+
+    abstract void runMain();
+
+    abstract String functionName(int index);
+
+    /**
+     * Runs Main, writing print and error output to out exactly as the reference
+     * interpreter does.
+     */
+    public void run(PrintStream out) {
+        long start = System.nanoTime();
+        this.out = out;
+        try {
+            String invalid = this.invalid();
+            if (invalid != null) {
+                out.println("The Sparrow program is invalid");
+                out.println(invalid);
+                return;
+            }
+            this.runMain();
+        } catch (Failure failure) {
+            out.println("--- Error (Explicit) ---");
+            out.println(failure.getMessage());
+        } finally {
+            this.nanos = System.nanoTime() - start;
+            out.flush();
+        }
+    }
+
+    public long getExecuted() {
+        long total = 0;
+        for (long count : this.executed) total += count;
+        return total;
+    }
+
+    public long getExecuted(String opcode) {
+        int op = Arrays.asList(this.opcodes).indexOf(opcode);
+        return op < 0 ? 0 : this.executed[op];
+    }
+
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    public void printReport(PrintStream report) {
+        long total = this.getExecuted();
+        double seconds = this.nanos / 1e9;
+        report.printf("executed %d instructions in %.3f ms (%.1f M ops/s)%n",
+            total, this.nanos / 1e6, seconds > 0 ? total / seconds / 1e6 : 0.0);
+        for (int op = 0; op < this.opcodes.length; op++) {
+            if (this.executed[op] > 0) report.printf("  %-10s %12d%n", this.opcodes[op], this.executed[op]);
+        }
+    }
+
+    static long integer(int value) {
+        return value & 0xFFFFFFFFL;
+    }
+
+    private static long pointer(int block, int offset) {
+        return ((long) (block + 1) << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    static long function(int index) {
+        return (long) -(index + 1) << 32;
+    }
+
+    static int tag(long value) {
+        return (int) (value >> 32);
+    }
+
+    static Failure wrongType(Object instr, String instruction) {
+        return new Failure("Error: " + instr + "\nWrong argument type in " + instruction);
+    }
+
+    private String show(long value) {
+        int tag = tag(value);
+        if (tag == 0) return Integer.toString((int) value);
+        if (tag > 0) return "(" + (tag - 1) + " + " + (int) value + ")";
+        return this.functionName(-tag - 1);
+    }
+
+    private int allocate(int words) {
+        if (this.blocks == this.blockBase.length) {
+            this.blockBase = Arrays.copyOf(this.blockBase, this.blocks * 2);
+            this.blockWords = Arrays.copyOf(this.blockWords, this.blocks * 2);
+        }
+        if (this.heapTop + words > this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, Math.max(this.heap.length * 2, this.heapTop + words));
+        }
+        this.blockBase[this.blocks] = this.heapTop;
+        this.blockWords[this.blocks] = words;
+        this.heapTop += words;
+        return this.blocks++;
+    }
+
+    // arena index of the word at pointer + offset, or a failure matching the reference's bounds error
+    private int address(long pointer, int offset) {
+        int block = tag(pointer) - 1;
+        int index = ((int) pointer + offset) / 4;
+        if (index < 0 || index >= this.blockWords[block]) {
+            throw new Failure("Index " + index + " out of bounds for length " + this.blockWords[block]);
+        }
+        return this.blockBase[block] + index;
+    }
+
+    long load(Object instr, long base, int offset) {
+        if (tag(base) <= 0) throw wrongType(instr, "Load");
+        return this.heap[this.address(base, offset)];
+    }
+
+    // the reference reports bad stores as Load errors too
+    void store(Object instr, long base, int offset, long value) {
+        if (tag(base) <= 0) throw wrongType(instr, "Load");
+        this.heap[this.address(base, offset)] = value;
+    }
+
+    long alloc(Object instr, long size) {
+        if (tag(size) != 0 || (int) size < 0 || (int) size % 4 != 0) {
+            throw new Failure("Error: " + instr + "\nWrong integer in Alloc");
+        }
+        return pointer(this.allocate((int) size / 4), 0);
+    }
+
+    void print(Object instr, long value) {
+        if (value == UNDEFINED) throw wrongType(instr, "Print");
+        this.out.println(this.show(value));
+    }
+}
@@ -0,0 +1,489 @@
+package Interp;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import Flow.SymbolPool;
+import IR.token.Identifier;
+import IR.token.Label;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Block;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Program;
+import sparrow.Store;
+import sparrow.Subtract;
+import sparrow.visitor.Visitor;
+
+/**
+ * Sparrow interpreter. Before running, every function is resolved: identifiers
+ * become frame slots, labels instruction indices and function names indices into
+ * the program, so the run loop only touches int and long arrays.
+ * <p>
+ * With compilation enabled, functions are handed to a {@link FunctionCompiler}
+ * either all before running or once they have been called a number of times,
+ * and from then on calls to them run the compiled JVM method.
+ */
+public class SparrowInterpreter extends Machine {
+    static final int CONST = 0, FUNC = 1, ADD = 2, SUB = 3, MUL = 4, LT = 5, LOAD = 6, STORE = 7,
+        MOVE = 8, ALLOC = 9, PRINT = 10, ERROR = 11, GOTO = 12, IF0 = 13, CALL = 14;
+    static final String[] OPCODES = { "const", "funcaddr", "add", "subtract", "multiply", "less than",
+        "load", "store", "move", "alloc", "print", "error", "goto", "if0", "call" };
+
+    private final Function[] functions;
+    private final String invalid;
+
+    private FunctionCompiler compiler;
+    private int threshold;
+
+    // a function resolved to four ints per instruction: opcode and up to three operands
+    static class Function {
+        final String name;
+        final int[] code;
+        final Instruction[] source;
+        final int slots;
+        final int parameters;
+        final int returned;
+        final int[][] arguments;
+        final String[] messages;
+        int calls;
+        CompiledFunction compiled;
+
+        Function(String name, int[] code, Instruction[] source, int slots, int parameters, int returned,
+                 int[][] arguments, String[] messages) {
+            this.name = name;
+            this.code = code;
+            this.source = source;
+            this.slots = slots;
+            this.parameters = parameters;
+            this.returned = returned;
+            this.arguments = arguments;
+            this.messages = messages;
+        }
+    }
+
+    public SparrowInterpreter(Program program) {
+        super(OPCODES);
+        HashMap<String, Integer> functionIndex = new HashMap<>();
+        String invalid = null;
+        for (FunctionDecl function : program.funDecls) {
+            String name = function.functionName.name;
+            if (functionIndex.containsKey(name) && invalid == null) {
+                invalid = "Error: The program declares the function " + name + " more than once";
+            }
+            functionIndex.putIfAbsent(name, functionIndex.size());
+        }
+
+        this.functions = new Function[program.funDecls.size()];
+        for (int f = 0; f < this.functions.length; f++) {
+            Resolver resolver = new Resolver(functionIndex);
+            this.functions[f] = resolver.resolve(program.funDecls.get(f));
+            if (invalid == null) invalid = resolver.invalid;
+        }
+        this.invalid = invalid;
+    }
+
+    /**
+     * Compiles functions to JVM methods while running: every function up front
+     * when threshold is 0, otherwise each one on its threshold-th call. Has no
+     * effect when the JDK compiler is not available.
+     */
+    public void enableCompilation(int threshold) {
+        this.compiler = FunctionCompiler.create(this);
+        this.threshold = threshold;
+    }
+
+    @Override
+    String invalid() {
+        return this.invalid;
+    }
+
+    @Override
+    void runMain() {
+        if (this.compiler != null && this.threshold == 0) this.compiler.compile(Arrays.asList(this.functions));
+        for (Function function : this.functions) {
+            if (function.name.equals("Main")) {
+                this.invoke(function, new long[0]);
+                return;
+            }
+        }
+    }
+
+    @Override
+    String functionName(int index) {
+        return this.functions[index].name;
+    }
+
+    @Override
+    public void printReport(PrintStream report) {
+        super.printReport(report);
+        if (this.compiler != null) {
+            report.printf("compiled %d functions in %.3f ms, %d left interpreted%n", this.compiler.getCompiled(),
+                this.compiler.getNanos() / 1e6, this.compiler.getRejected());
+            report.println("(instructions of compiled functions are not counted)");
+        }
+    }
+
+    Function[] getFunctions() {
+        return this.functions;
+    }
+
+    // the function a call at instr goes to, after the checks the reference makes
+    Function callee(Object instr, long callee, int arguments) {
+        if (tag(callee) >= 0 || callee == UNDEFINED) throw wrongType(instr, "Call");
+        Function target = this.functions[-tag(callee) - 1];
+        if (arguments != target.parameters) {
+            throw new Failure("Error: " + instr + "\nWrong number of arguments in Call");
+        }
+        return target;
+    }
+
+    // true when calls to target should go to its compiled method, compiling it if it just became hot
+    private boolean compiled(Function target) {
+        if (target.compiled != null) return true;
+        if (this.compiler == null || ++target.calls != this.threshold) return false;
+        this.compiler.compile(List.of(target));
+        return target.compiled != null;
+    }
+
+    /**
+     * Calls target with the given arguments; frame may be longer than the
+     * parameter list. Used for Main and by compiled code.
+     */
+    long invoke(Function target, long[] arguments) {
+        if (this.compiled(target)) return target.compiled.invoke(arguments);
+        long[] frame = new long[target.slots];
+        System.arraycopy(arguments, 0, frame, 0, target.parameters);
+        Arrays.fill(frame, target.parameters, target.slots, UNDEFINED);
+        return this.execute(target, frame);
+    }
+
+    private long execute(Function entry, long[] entryFrame) {
+        long[] executed = this.executed;
+        Function function = entry;
+        int[] code = function.code;
+        long[] frame = entryFrame;
+        int pc = 0;
+
+        // caller state, pushed on call and popped on return
+        Function[] callers = new Function[64];
+        long[][] frames = new long[64][];
+        int[] returnPcs = new int[64];
+        int depth = 0;
+
+        while (true) {
+            if (pc == code.length) {
+                long result = frame[function.returned];
+                if (depth == 0) return result;
+                depth--;
+                function = callers[depth];
+                code = function.code;
+                frame = frames[depth];
+                pc = returnPcs[depth];
+                frame[code[pc + 1]] = result;
+                pc += 4;
+                continue;
+            }
+
+            int op = code[pc];
+            int a = code[pc + 1];
+            int b = code[pc + 2];
+            int c = code[pc + 3];
+            executed[op]++;
+            switch (op) {
+                case CONST:
+                    frame[a] = integer(b);
+                    break;
+                case FUNC:
+                    frame[a] = function(b);
+                    break;
+                case ADD: {
+                    long x = frame[b];
+                    long y = frame[c];
+                    if (tag(y) != 0 || tag(x) < 0) throw wrongType(function.source[pc >> 2], "Add");
+                    frame[a] = (x & 0xFFFFFFFF00000000L) | integer((int) x + (int) y);
+                    break;
+                }
+                case SUB: {
+                    long x = frame[b];
+                    long y = frame[c];
+                    if ((tag(x) | tag(y)) != 0) throw wrongType(function.source[pc >> 2], "Subtract");
+                    frame[a] = integer((int) x - (int) y);
+                    break;
+                }
+                case MUL: {
+                    long x = frame[b];
+                    long y = frame[c];
+                    if ((tag(x) | tag(y)) != 0) throw wrongType(function.source[pc >> 2], "Multiply");
+                    frame[a] = integer((int) x * (int) y);
+                    break;
+                }
+                case LT: {
+                    long x = frame[b];
+                    long y = frame[c];
+                    if ((tag(x) | tag(y)) != 0) throw wrongType(function.source[pc >> 2], "LessThan");
+                    frame[a] = integer((int) x < (int) y ? 1 : 0);
+                    break;
+                }
+                case LOAD:
+                    frame[a] = this.load(function.source[pc >> 2], frame[b], c);
+                    break;
+                case STORE:
+                    this.store(function.source[pc >> 2], frame[a], b, frame[c]);
+                    break;
+                case MOVE:
+                    frame[a] = frame[b];
+                    break;
+                case ALLOC:
+                    frame[a] = this.alloc(function.source[pc >> 2], frame[b]);
+                    break;
+                case PRINT:
+                    this.print(function.source[pc >> 2], frame[a]);
+                    break;
+                case ERROR:
+                    throw new Failure(function.messages[a]);
+                case GOTO:
+                    pc = a;
+                    continue;
+                case IF0: {
+                    long condition = frame[a];
+                    if (condition == 0) {
+                        pc = b;
+                        continue;
+                    }
+                    if (condition == UNDEFINED) throw wrongType(function.source[pc >> 2], "IfGoto");
+                    break;
+                }
+                case CALL: {
+                    int[] arguments = function.arguments[c];
+                    Function target = this.callee(function.source[pc >> 2], frame[b], arguments.length);
+                    long[] next = new long[target.slots];
+                    Arrays.fill(next, target.parameters, target.slots, UNDEFINED);
+                    for (int i = 0; i < arguments.length; i++) next[i] = frame[arguments[i]];
+                    if (this.compiled(target)) {
+                        frame[a] = target.compiled.invoke(next);
+                        break;
+                    }
+
+                    if (depth == callers.length) {
+                        callers = Arrays.copyOf(callers, depth * 2);
+                        frames = Arrays.copyOf(frames, depth * 2);
+                        returnPcs = Arrays.copyOf(returnPcs, depth * 2);
+                    }
+                    callers[depth] = function;
+                    frames[depth] = frame;
+                    returnPcs[depth] = pc;
+                    depth++;
+                    function = target;
+                    code = target.code;
+                    frame = next;
+                    pc = 0;
+                    continue;
+                }
+                default:
+                    throw new IllegalStateException("Unknown opcode " + op);
+            }
+            pc += 4;
+        }
+    }
+
+    /**
+     * Numbers one function's identifiers (parameters first) and labels, and
+     * writes its instructions as opcodes. Labels take no instruction; a jump to
+     * one lands on whatever follows it.
+     */
+    private static class Resolver implements Visitor {
+        private final HashMap<String, Integer> functionIndex;
+        private final SymbolPool symbols = new SymbolPool();
+        private final List<Instruction> source = new ArrayList<>();
+        private final List<int[]> arguments = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        private int[] code = new int[64];
+        private int size = 0;
+        private int[] labels = new int[16];
+        // jumps to patch once every label is placed: code index of the target operand, label id
+        private final List<int[]> jumps = new ArrayList<>();
+        private final List<Instruction> jumpSources = new ArrayList<>();
+        String invalid;
+
+        Resolver(HashMap<String, Integer> functionIndex) {
+            this.functionIndex = functionIndex;
+        }
+
+        Function resolve(FunctionDecl function) {
+            for (Identifier param : function.formalParameters) this.symbols.id(param);
+            Arrays.fill(this.labels, -1);
+            function.block.accept(this);
+
+            for (int j = 0; j < this.jumps.size(); j++) {
+                int[] jump = this.jumps.get(j);
+                int target = jump[1] < this.labels.length ? this.labels[jump[1]] : -1;
+                if (target < 0) {
+                    this.fail(this.jumpSources.get(j), "uses the label " + this.symbols.labelName(jump[1])
+                        + " which is undefined in that block");
+                    target = this.size;
+                }
+                this.code[jump[0]] = target;
+            }
+
+            int returned = this.symbols.id(function.block.return_id);
+            return new Function(function.functionName.name, Arrays.copyOf(this.code, this.size),
+                this.source.toArray(new Instruction[0]), this.symbols.size(), function.formalParameters.size(),
+                returned, this.arguments.toArray(new int[0][]), this.messages.toArray(new String[0]));
+        }
+
+        private void fail(Instruction instr, String reason) {
+            if (this.invalid == null) this.invalid = "Error: " + instr + "\n       " + reason;
+        }
+
+        private int slot(Identifier id) {
+            return this.symbols.id(id);
+        }
+
+        private void emit(Instruction instr, int op, int a, int b, int c) {
+            if (this.size + 4 > this.code.length) this.code = Arrays.copyOf(this.code, this.code.length * 2);
+            this.code[this.size++] = op;
+            this.code[this.size++] = a;
+            this.code[this.size++] = b;
+            this.code[this.size++] = c;
+            this.source.add(instr);
+        }
+
+        private void jump(Instruction instr, Label label, int operand) {
+            this.jumps.add(new int[] { this.size - 4 + operand, this.symbols.label(label) });
+            this.jumpSources.add(instr);
+        }
+
+        private void checkOffset(Instruction instr, int offset) {
+            if (offset % 4 != 0) this.fail(instr, "uses the offset " + offset + " that is not divisible by 4");
+        }
+
+        @Override
+        public void visit(Program n) {
+        }
+
+        @Override
+        public void visit(FunctionDecl n) {
+        }
+
+        @Override
+        public void visit(Block n) {
+            for (Instruction instr : n.instructions) instr.accept(this);
+        }
+
+        @Override
+        public void visit(LabelInstr n) {
+            int label = this.symbols.label(n.label);
+            if (label >= this.labels.length) {
+                int grown = this.labels.length;
+                this.labels = Arrays.copyOf(this.labels, label * 2);
+                Arrays.fill(this.labels, grown, this.labels.length, -1);
+            }
+            this.labels[label] = this.size;
+        }
+
+        @Override
+        public void visit(Move_Id_Integer n) {
+            this.emit(n, CONST, slot(n.lhs), n.rhs, 0);
+        }
+
+        @Override
+        public void visit(Move_Id_FuncName n) {
+            Integer index = this.functionIndex.get(n.rhs.name);
+            if (index == null) {
+                this.fail(n, "uses the function name " + n.rhs.name + " which is undefined");
+                index = 0;
+            }
+            this.emit(n, FUNC, slot(n.lhs), index, 0);
+        }
+
+        @Override
+        public void visit(Add n) {
+            this.emit(n, ADD, slot(n.lhs), slot(n.arg1), slot(n.arg2));
+        }
+
+        @Override
+        public void visit(Subtract n) {
+            this.emit(n, SUB, slot(n.lhs), slot(n.arg1), slot(n.arg2));
+        }
+
+        @Override
+        public void visit(Multiply n) {
+            this.emit(n, MUL, slot(n.lhs), slot(n.arg1), slot(n.arg2));
+        }
+
+        @Override
+        public void visit(LessThan n) {
+            this.emit(n, LT, slot(n.lhs), slot(n.arg1), slot(n.arg2));
+        }
+
+        @Override
+        public void visit(Load n) {
+            this.checkOffset(n, n.offset);
+            this.emit(n, LOAD, slot(n.lhs), slot(n.base), n.offset);
+        }
+
+        @Override
+        public void visit(Store n) {
+            this.checkOffset(n, n.offset);
+            this.emit(n, STORE, slot(n.base), n.offset, slot(n.rhs));
+        }
+
+        @Override
+        public void visit(Move_Id_Id n) {
+            this.emit(n, MOVE, slot(n.lhs), slot(n.rhs), 0);
+        }
+
+        @Override
+        public void visit(Alloc n) {
+            this.emit(n, ALLOC, slot(n.lhs), slot(n.size), 0);
+        }
+
+        @Override
+        public void visit(Print n) {
+            this.emit(n, PRINT, slot(n.content), 0, 0);
+        }
+
+        @Override
+        public void visit(ErrorMessage n) {
+            this.messages.add(n.msg.startsWith("\"") ? n.msg.substring(1, n.msg.length() - 1) : n.msg);
+            this.emit(n, ERROR, this.messages.size() - 1, 0, 0);
+        }
+
+        @Override
+        public void visit(Goto n) {
+            this.emit(n, GOTO, 0, 0, 0);
+            this.jump(n, n.label, 1);
+        }
+
+        @Override
+        public void visit(IfGoto n) {
+            this.emit(n, IF0, slot(n.condition), 0, 0);
+            this.jump(n, n.label, 2);
+        }
+
+        @Override
+        public void visit(Call n) {
+            int[] args = new int[n.args.size()];
+            for (int i = 0; i < args.length; i++) args[i] = slot(n.args.get(i));
+            this.arguments.add(args);
+            this.emit(n, CALL, slot(n.lhs), slot(n.callee), this.arguments.size() - 1);
+        }
+    }
+}
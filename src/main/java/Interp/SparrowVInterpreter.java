@@ -0,0 +1,512 @@
+package Interp;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import Flow.SymbolPool;
+import IR.token.Identifier;
+import IR.token.Label;
+import IR.token.Register;
+import sparrowv.Add;
+import sparrowv.Alloc;
+import sparrowv.Block;
+import sparrowv.Call;
+import sparrowv.ErrorMessage;
+import sparrowv.FunctionDecl;
+import sparrowv.Goto;
+import sparrowv.IfGoto;
+import sparrowv.Instruction;
+import sparrowv.LabelInstr;
+import sparrowv.LessThan;
+import sparrowv.Load;
+import sparrowv.Move_Id_Reg;
+import sparrowv.Move_Reg_FuncName;
+import sparrowv.Move_Reg_Id;
+import sparrowv.Move_Reg_Integer;
+import sparrowv.Move_Reg_Reg;
+import sparrowv.Multiply;
+import sparrowv.Print;
+import sparrowv.Program;
+import sparrowv.Store;
+import sparrowv.Subtract;
+import sparrowv.visitor.Visitor;
+
+/**
+ * Sparrow-V interpreter. Registers live in one register file shared by every
+ * function; stack identifiers are resolved to frame slots as in
+ * {@link SparrowInterpreter}. Register moves, spills (id = reg) and reloads
+ * (reg = id) are counted as separate opcodes, so running the output of two
+ * allocators compares them in executed instructions.
+ * <p>
+ * With callee-saved checking on, every call records s1-s11 and fails if the
+ * callee returns with any of them changed.
+ */
+public class SparrowVInterpreter extends Machine {
+    static final int CONST = 0, FUNC = 1, ADD = 2, SUB = 3, MUL = 4, LT = 5, LOAD = 6, STORE = 7,
+        MOVE = 8, SPILL = 9, RELOAD = 10, ALLOC = 11, PRINT = 12, ERROR = 13, GOTO = 14, IF0 = 15, CALL = 16;
+    static final String[] OPCODES = { "const", "funcaddr", "add", "subtract", "multiply", "less than",
+        "load", "store", "move", "spill", "reload", "alloc", "print", "error", "goto", "if0", "call" };
+
+    static final String[] REGISTERS = { "a0", "a1", "a2", "a3", "a4", "a5", "a6", "a7",
+        "s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", "s9", "s10", "s11",
+        "t0", "t1", "t2", "t3", "t4", "t5" };
+    private static final int S1 = 8, CALLEE_SAVED = 11;
+
+    private final Function[] functions;
+    private final String invalid;
+    private final long[] registers = new long[REGISTERS.length];
+    private boolean checkCalleeSaved;
+
+    // a function resolved to four ints per instruction: opcode and up to three register or slot operands
+    static class Function {
+        final String name;
+        final int[] code;
+        final Instruction[] source;
+        final int slots;
+        final int parameters;
+        final int returned;
+        final int[][] arguments;
+        final String[] messages;
+
+        Function(String name, int[] code, Instruction[] source, int slots, int parameters, int returned,
+                 int[][] arguments, String[] messages) {
+            this.name = name;
+            this.code = code;
+            this.source = source;
+            this.slots = slots;
+            this.parameters = parameters;
+            this.returned = returned;
+            this.arguments = arguments;
+            this.messages = messages;
+        }
+    }
+
+    public SparrowVInterpreter(Program program) {
+        super(OPCODES);
+        HashMap<String, Integer> functionIndex = new HashMap<>();
+        String invalid = null;
+        for (FunctionDecl function : program.funDecls) {
+            String name = function.functionName.name;
+            if (functionIndex.containsKey(name) && invalid == null) {
+                invalid = "Error: The program declares the function " + name + " more than once";
+            }
+            functionIndex.putIfAbsent(name, functionIndex.size());
+        }
+
+        this.functions = new Function[program.funDecls.size()];
+        for (int f = 0; f < this.functions.length; f++) {
+            Resolver resolver = new Resolver(functionIndex);
+            this.functions[f] = resolver.resolve(program.funDecls.get(f));
+            if (invalid == null) invalid = resolver.invalid;
+        }
+        this.invalid = invalid;
+        Arrays.fill(this.registers, UNDEFINED);
+    }
+
+    /**
+     * Fails a call whose callee returns with s1-s11 not as the call found them.
+     */
+    public void checkCalleeSaved(boolean check) {
+        this.checkCalleeSaved = check;
+    }
+
+    @Override
+    String invalid() {
+        return this.invalid;
+    }
+
+    @Override
+    void runMain() {
+        for (Function function : this.functions) {
+            if (function.name.equals("Main")) {
+                long[] frame = new long[function.slots];
+                Arrays.fill(frame, UNDEFINED);
+                this.execute(function, frame);
+                return;
+            }
+        }
+    }
+
+    @Override
+    String functionName(int index) {
+        return this.functions[index].name;
+    }
+
+    @Override
+    public void printReport(PrintStream report) {
+        super.printReport(report);
+        report.printf("register moves %d, spills %d, reloads %d%n",
+            this.getExecuted("move"), this.getExecuted("spill"), this.getExecuted("reload"));
+    }
+
+    private void execute(Function entry, long[] entryFrame) {
+        long[] executed = this.executed;
+        long[] registers = this.registers;
+        Function function = entry;
+        int[] code = function.code;
+        long[] frame = entryFrame;
+        int pc = 0;
+
+        // caller state, pushed on call and popped on return
+        Function[] callers = new Function[64];
+        long[][] frames = new long[64][];
+        int[] returnPcs = new int[64];
+        long[] saved = this.checkCalleeSaved ? new long[64 * CALLEE_SAVED] : null;
+        int depth = 0;
+
+        while (true) {
+            if (pc == code.length) {
+                long result = frame[function.returned];
+                if (depth == 0) return;
+                depth--;
+                Function callee = function;
+                function = callers[depth];
+                code = function.code;
+                frame = frames[depth];
+                pc = returnPcs[depth];
+                if (saved != null) {
+                    for (int i = 0; i < CALLEE_SAVED; i++) {
+                        if (registers[S1 + i] != saved[depth * CALLEE_SAVED + i]) {
+                            throw new Failure("Error: " + function.source[pc >> 2] + "\nCallee-saved register "
+                                + REGISTERS[S1 + i] + " changed by " + callee.name);
+                        }
+                    }
+                }
+                registers[code[pc + 1]] = result;
+                pc += 4;
+                continue;
+            }
+
+            int op = code[pc];
+            int a = code[pc + 1];
+            int b = code[pc + 2];
+            int c = code[pc + 3];
+            executed[op]++;
+            switch (op) {
+                case CONST:
+                    registers[a] = integer(b);
+                    break;
+                case FUNC:
+                    registers[a] = function(b);
+                    break;
+                case ADD: {
+                    long x = registers[b];
+                    long y = registers[c];
+                    if (tag(y) != 0 || tag(x) < 0) throw wrongType(function.source[pc >> 2], "Add");
+                    registers[a] = (x & 0xFFFFFFFF00000000L) | integer((int) x + (int) y);
+                    break;
+                }
+                case SUB: {
+                    long x = registers[b];
+                    long y = registers[c];
+                    if ((tag(x) | tag(y)) != 0) throw wrongType(function.source[pc >> 2], "Subtract");
+                    registers[a] = integer((int) x - (int) y);
+                    break;
+                }
+                case MUL: {
+                    long x = registers[b];
+                    long y = registers[c];
+                    if ((tag(x) | tag(y)) != 0) throw wrongType(function.source[pc >> 2], "Multiply");
+                    registers[a] = integer((int) x * (int) y);
+                    break;
+                }
+                case LT: {
+                    long x = registers[b];
+                    long y = registers[c];
+                    if ((tag(x) | tag(y)) != 0) throw wrongType(function.source[pc >> 2], "LessThan");
+                    registers[a] = integer((int) x < (int) y ? 1 : 0);
+                    break;
+                }
+                case LOAD:
+                    registers[a] = this.load(function.source[pc >> 2], registers[b], c);
+                    break;
+                case STORE:
+                    this.store(function.source[pc >> 2], registers[a], b, registers[c]);
+                    break;
+                case MOVE:
+                    registers[a] = registers[b];
+                    break;
+                case SPILL:
+                    frame[a] = registers[b];
+                    break;
+                case RELOAD:
+                    registers[a] = frame[b];
+                    break;
+                case ALLOC:
+                    registers[a] = this.alloc(function.source[pc >> 2], registers[b]);
+                    break;
+                case PRINT:
+                    this.print(function.source[pc >> 2], registers[a]);
+                    break;
+                case ERROR:
+                    throw new Failure(function.messages[a]);
+                case GOTO:
+                    pc = a;
+                    continue;
+                case IF0: {
+                    long condition = registers[a];
+                    if (condition == 0) {
+                        pc = b;
+                        continue;
+                    }
+                    if (condition == UNDEFINED) throw wrongType(function.source[pc >> 2], "IfGoto");
+                    break;
+                }
+                case CALL: {
+                    long callee = registers[b];
+                    if (tag(callee) >= 0 || callee == UNDEFINED) throw wrongType(function.source[pc >> 2], "Call");
+                    Function target = this.functions[-tag(callee) - 1];
+                    int[] arguments = function.arguments[c];
+                    if (arguments.length != target.parameters) {
+                        throw new Failure("Error: " + function.source[pc >> 2] + "\nWrong number of arguments in Call");
+                    }
+                    long[] next = new long[target.slots];
+                    Arrays.fill(next, target.parameters, target.slots, UNDEFINED);
+                    for (int i = 0; i < arguments.length; i++) next[i] = frame[arguments[i]];
+
+                    if (depth == callers.length) {
+                        callers = Arrays.copyOf(callers, depth * 2);
+                        frames = Arrays.copyOf(frames, depth * 2);
+                        returnPcs = Arrays.copyOf(returnPcs, depth * 2);
+                        if (saved != null) saved = Arrays.copyOf(saved, depth * 2 * CALLEE_SAVED);
+                    }
+                    callers[depth] = function;
+                    frames[depth] = frame;
+                    returnPcs[depth] = pc;
+                    if (saved != null) System.arraycopy(registers, S1, saved, depth * CALLEE_SAVED, CALLEE_SAVED);
+                    depth++;
+                    function = target;
+                    code = target.code;
+                    frame = next;
+                    pc = 0;
+                    continue;
+                }
+                default:
+                    throw new IllegalStateException("Unknown opcode " + op);
+            }
+            pc += 4;
+        }
+    }
+
+    /**
+     * Numbers one function's stack identifiers (parameters first) and labels,
+     * maps registers to their index in the register file and writes the
+     * instructions as opcodes.
+     */
+    private static class Resolver implements Visitor {
+        private static final HashMap<String, Integer> REGISTER_INDEX = new HashMap<>();
+        static {
+            for (int i = 0; i < REGISTERS.length; i++) REGISTER_INDEX.put(REGISTERS[i], i);
+        }
+
+        private final HashMap<String, Integer> functionIndex;
+        private final SymbolPool symbols = new SymbolPool();
+        private final List<Instruction> source = new ArrayList<>();
+        private final List<int[]> arguments = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        private int[] code = new int[64];
+        private int size = 0;
+        private int[] labels = new int[16];
+        // jumps to patch once every label is placed: code index of the target operand, label id
+        private final List<int[]> jumps = new ArrayList<>();
+        private final List<Instruction> jumpSources = new ArrayList<>();
+        String invalid;
+
+        Resolver(HashMap<String, Integer> functionIndex) {
+            this.functionIndex = functionIndex;
+        }
+
+        Function resolve(FunctionDecl function) {
+            for (Identifier param : function.formalParameters) this.symbols.id(param);
+            Arrays.fill(this.labels, -1);
+            function.block.accept(this);
+
+            for (int j = 0; j < this.jumps.size(); j++) {
+                int[] jump = this.jumps.get(j);
+                int target = jump[1] < this.labels.length ? this.labels[jump[1]] : -1;
+                if (target < 0) {
+                    this.fail(this.jumpSources.get(j), "uses the label " + this.symbols.labelName(jump[1])
+                        + " which is undefined in that block");
+                    target = this.size;
+                }
+                this.code[jump[0]] = target;
+            }
+
+            int returned = this.symbols.id(function.block.return_id);
+            return new Function(function.functionName.name, Arrays.copyOf(this.code, this.size),
+                this.source.toArray(new Instruction[0]), this.symbols.size(), function.formalParameters.size(),
+                returned, this.arguments.toArray(new int[0][]), this.messages.toArray(new String[0]));
+        }
+
+        private void fail(Instruction instr, String reason) {
+            if (this.invalid == null) this.invalid = "Error: " + instr + "\n       " + reason;
+        }
+
+        private int slot(Identifier id) {
+            return this.symbols.id(id);
+        }
+
+        private static int reg(Register register) {
+            return REGISTER_INDEX.get(register.toString());
+        }
+
+        private void emit(Instruction instr, int op, int a, int b, int c) {
+            if (this.size + 4 > this.code.length) this.code = Arrays.copyOf(this.code, this.code.length * 2);
+            this.code[this.size++] = op;
+            this.code[this.size++] = a;
+            this.code[this.size++] = b;
+            this.code[this.size++] = c;
+            this.source.add(instr);
+        }
+
+        private void jump(Instruction instr, Label label, int operand) {
+            this.jumps.add(new int[] { this.size - 4 + operand, this.symbols.label(label) });
+            this.jumpSources.add(instr);
+        }
+
+        private void checkOffset(Instruction instr, int offset) {
+            if (offset % 4 != 0) this.fail(instr, "uses the offset " + offset + " that is not divisible by 4");
+        }
+
+        @Override
+        public void visit(Program n) {
+        }
+
+        @Override
+        public void visit(FunctionDecl n) {
+        }
+
+        @Override
+        public void visit(Block n) {
+            for (Instruction instr : n.instructions) instr.accept(this);
+        }
+
+        @Override
+        public void visit(LabelInstr n) {
+            int label = this.symbols.label(n.label);
+            if (label >= this.labels.length) {
+                int grown = this.labels.length;
+                this.labels = Arrays.copyOf(this.labels, label * 2);
+                Arrays.fill(this.labels, grown, this.labels.length, -1);
+            }
+            this.labels[label] = this.size;
+        }
+
+        @Override
+        public void visit(Move_Reg_Integer n) {
+            this.emit(n, CONST, reg(n.lhs), n.rhs, 0);
+        }
+
+        @Override
+        public void visit(Move_Reg_FuncName n) {
+            Integer index = this.functionIndex.get(n.rhs.name);
+            if (index == null) {
+                this.fail(n, "uses the function name " + n.rhs.name + " which is undefined");
+                index = 0;
+            }
+            this.emit(n, FUNC, reg(n.lhs), index, 0);
+        }
+
+        @Override
+        public void visit(Add n) {
+            this.emit(n, ADD, reg(n.lhs), reg(n.arg1), reg(n.arg2));
+        }
+
+        @Override
+        public void visit(Subtract n) {
+            this.emit(n, SUB, reg(n.lhs), reg(n.arg1), reg(n.arg2));
+        }
+
+        @Override
+        public void visit(Multiply n) {
+            this.emit(n, MUL, reg(n.lhs), reg(n.arg1), reg(n.arg2));
+        }
+
+        @Override
+        public void visit(LessThan n) {
+            this.emit(n, LT, reg(n.lhs), reg(n.arg1), reg(n.arg2));
+        }
+
+        @Override
+        public void visit(Load n) {
+            this.checkOffset(n, n.offset);
+            this.emit(n, LOAD, reg(n.lhs), reg(n.base), n.offset);
+        }
+
+        @Override
+        public void visit(Store n) {
+            this.checkOffset(n, n.offset);
+            this.emit(n, STORE, reg(n.base), n.offset, reg(n.rhs));
+        }
+
+        @Override
+        public void visit(Move_Reg_Reg n) {
+            this.emit(n, MOVE, reg(n.lhs), reg(n.rhs), 0);
+        }
+
+        @Override
+        public void visit(Move_Id_Reg n) {
+            this.move(n, n.lhs.toString(), n.rhs.toString());
+        }
+
+        @Override
+        public void visit(Move_Reg_Id n) {
+            this.move(n, n.lhs.toString(), n.rhs.toString());
+        }
+
+        // the parser builds every "x = y" as a Move_Id_Reg, so the names decide which move it is
+        private void move(Instruction n, String lhs, String rhs) {
+            Integer to = REGISTER_INDEX.get(lhs);
+            Integer from = REGISTER_INDEX.get(rhs);
+            if (to != null && from != null) {
+                this.emit(n, MOVE, to, from, 0);
+            } else if (from != null) {
+                this.emit(n, SPILL, this.symbols.id(new Identifier(lhs)), from, 0);
+            } else if (to != null) {
+                this.emit(n, RELOAD, to, this.symbols.id(new Identifier(rhs)), 0);
+            } else {
+                this.fail(n, "moves between the stack identifiers " + lhs + " and " + rhs);
+                this.emit(n, MOVE, 0, 0, 0);
+            }
+        }
+
+        @Override
+        public void visit(Alloc n) {
+            this.emit(n, ALLOC, reg(n.lhs), reg(n.size), 0);
+        }
+
+        @Override
+        public void visit(Print n) {
+            this.emit(n, PRINT, reg(n.content), 0, 0);
+        }
+
+        @Override
+        public void visit(ErrorMessage n) {
+            this.messages.add(n.msg.startsWith("\"") ? n.msg.substring(1, n.msg.length() - 1) : n.msg);
+            this.emit(n, ERROR, this.messages.size() - 1, 0, 0);
+        }
+
+        @Override
+        public void visit(Goto n) {
+            this.emit(n, GOTO, 0, 0, 0);
+            this.jump(n, n.label, 1);
+        }
+
+        @Override
+        public void visit(IfGoto n) {
+            this.emit(n, IF0, reg(n.condition), 0, 0);
+            this.jump(n, n.label, 2);
+        }
+
+        @Override
+        public void visit(Call n) {
+            int[] args = new int[n.args.size()];
+            for (int i = 0; i < args.length; i++) args[i] = slot(n.args.get(i));
+            this.arguments.add(args);
+            this.emit(n, CALL, reg(n.lhs), reg(n.callee), this.arguments.size() - 1);
+        }
+    }
+}
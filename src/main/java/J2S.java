@@ -1,34 +1,256 @@
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import Env.Emitter;
+import Env.ListEmitter;
+import Env.OptimizationReport;
 import Env.SymbolTableVisitor;
+import Env.TranslationOptions;
 import Env.TranslationVisitor;
-import minijava.MiniJavaParser;
+import Env.WriterEmitter;
+import minijava.ParseException;
+import minijava.ReentrantMiniJavaParser;
+import minijava.TokenMgrError;
 import minijava.syntaxtree.Goal;
 
 
 
 public class J2S {
+
+    // outcome of one file in batch mode
+    private static class BatchResult {
+        Path input;
+        long nanos;
+        int sourceLines;
+        Throwable error;
+        OptimizationReport report;
+    }
+
     public static void main(String [] args){
+        List<String> flags = new ArrayList<>();
+        List<Path> inputs = new ArrayList<>();
+        Path outDir = null;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        boolean batchOption = false;
+        for (String arg : args){
+            if (arg.startsWith("--out=")){
+                outDir = Paths.get(arg.substring("--out=".length()));
+                batchOption = true;
+            } else if (arg.startsWith("--jobs=")){
+                try {
+                    jobs = Integer.parseInt(arg.substring("--jobs=".length()));
+                } catch (NumberFormatException e){
+                    jobs = 0;
+                }
+                if (jobs < 1){
+                    usage(arg + ": the number of jobs must be a positive integer");
+                }
+                batchOption = true;
+            } else if (arg.startsWith("--")){
+                flags.add(arg);
+            } else {
+                inputs.add(Paths.get(arg));
+            }
+        }
+
+        if (!inputs.isEmpty()){
+            TranslationOptions options = TranslationOptions.fromArgs(flags.toArray(new String[0]));
+            runBatch(inputs, outDir, jobs, options);
+            return;
+        }
+        if (batchOption){
+            usage("--out and --jobs only apply when input files are given");
+        }
+
         try{
+            TranslationOptions options = TranslationOptions.fromArgs(flags.toArray(new String[0]));
             InputStream in = System.in;
-            MiniJavaParser parser = new MiniJavaParser(in);
-            Goal goal = parser.Goal();
-            SymbolTableVisitor symbolTableVisitor = new SymbolTableVisitor();
-            goal.accept(symbolTableVisitor, null);
-            //symbolTableVisitor.getTable().print();
-            // TypeCheckVisitor typeCheckVisitor = new TypeCheckVisitor(symbolTableVisitor.getTable());
-            // goal.accept(typeCheckVisitor, null);
-            TranslationVisitor translationVisitor = new TranslationVisitor(symbolTableVisitor.getTable());
-            goal.accept(translationVisitor, null);
 
-            for (String line : translationVisitor.getLines()){
-                System.out.println(line);
+            // streamed as it is produced; a failed translation is reported on stderr with status 1
+            WriterEmitter emitter = new WriterEmitter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+            OptimizationReport report = translate(in, options, emitter);
+            emitter.endFunction();
+            if (options.report){
+                report.print(System.err);
             }
-            
-        } catch (Exception e){
-            System.out.println(e);
-            System.out.println("Type error" + e);
+
+        } catch (Exception | TokenMgrError e){
+            System.err.println("Type error " + e);
+            System.exit(1);
         }
     }
 
-}
\ No newline at end of file
+    // prints what is wrong with the command line and exits with status 2
+    private static void usage(String problem){
+        System.err.println(problem);
+        System.err.println("usage: J2S [--option ...] < Program.java");
+        System.err.println("       J2S [--option ...] [--out=DIR] [--jobs=N] (File.java | DIR) ...");
+        System.exit(2);
+    }
+
+    /**
+     * Translates one MiniJava program into Sparrow lines.
+     * Uses the instance-based parser, so any number of calls can run at once.
+     */
+    public static List<String> compile(InputStream in, TranslationOptions options) throws ParseException {
+        ListEmitter emitter = new ListEmitter();
+        translate(in, options, emitter);
+        return emitter.getLines();
+    }
+
+    /**
+     * Translates one MiniJava program, handing each Sparrow line to the emitter as it is produced.
+     * Returns what the enabled optimizations did to each function.
+     */
+    public static OptimizationReport translate(InputStream in, TranslationOptions options, Emitter emitter) throws ParseException {
+        ReentrantMiniJavaParser parser = new ReentrantMiniJavaParser(in);
+        Goal goal = parser.Goal();
+        SymbolTableVisitor symbolTableVisitor = new SymbolTableVisitor();
+        goal.accept(symbolTableVisitor, null);
+        //symbolTableVisitor.getTable().print();
+        // TypeCheckVisitor typeCheckVisitor = new TypeCheckVisitor(symbolTableVisitor.getTable());
+        // goal.accept(typeCheckVisitor, null);
+        TranslationVisitor translationVisitor = new TranslationVisitor(symbolTableVisitor.getTable(), options, emitter);
+        goal.accept(translationVisitor, null);
+        return translationVisitor.getReport();
+    }
+
+    /**
+     * Compiles every input on the given pool. Results come back in input order
+     * and are identical to calling compile on each file in turn.
+     */
+    public static List<List<String>> compileAll(List<Path> inputs, TranslationOptions options, ExecutorService pool)
+            throws InterruptedException, ExecutionException {
+        List<Future<List<String>>> pending = new ArrayList<>();
+        for (Path input : inputs){
+            pending.add(pool.submit(() -> {
+                try (InputStream in = Files.newInputStream(input)){
+                    return compile(in, options);
+                } catch (IOException e){
+                    throw new RuntimeException("Could not read " + input, e);
+                }
+            }));
+        }
+
+        List<List<String>> results = new ArrayList<>();
+        for (Future<List<String>> result : pending){
+            results.add(result.get());
+        }
+        return results;
+    }
+
+    /**
+     * Batch mode: compiles every .java file named on the command line (directories are
+     * searched) on a work-stealing pool and writes <name>.sparrow next to the input or into outDir.
+     * A file that fails to compile is reported, leaves no .sparrow behind, and the rest of the batch carries on.
+     */
+    private static void runBatch(List<Path> inputs, Path outDir, int jobs, TranslationOptions options){
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs){
+            if (Files.isDirectory(input)){
+                try (Stream<Path> walk = Files.walk(input)){
+                    files.addAll(walk.filter(p -> p.toString().endsWith(".java")).sorted().collect(Collectors.toList()));
+                } catch (IOException e){
+                    System.err.println("Could not list " + input + ": " + e);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+
+        if (outDir != null){
+            try {
+                Files.createDirectories(outDir);
+            } catch (IOException e){
+                System.err.println("Could not create " + outDir + ": " + e);
+                return;
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(jobs);
+        long start = System.nanoTime();
+        List<Future<BatchResult>> pending = new ArrayList<>();
+        for (Path file : files){
+            Path target = outDir != null ? outDir : file.toAbsolutePath().getParent();
+            pending.add(pool.submit(() -> compileFile(file, target, options)));
+        }
+
+        int failed = 0;
+        long sourceLines = 0;
+        for (Future<BatchResult> pendingResult : pending){
+            BatchResult result;
+            try {
+                result = pendingResult.get();
+            } catch (InterruptedException | ExecutionException e){
+                System.err.println("Batch task did not finish: " + e);
+                failed++;
+                continue;
+            }
+            sourceLines += result.sourceLines;
+            String status = result.error == null
+                ? "ok"
+                : "FAILED " + result.error.toString().lines().findFirst().orElse("");
+            System.out.printf("%-40s %8.2f ms %6d lines  %s%n",
+                result.input, result.nanos / 1e6, result.sourceLines, status);
+            if (result.error != null){
+                failed++;
+            } else if (options.report && !result.report.isEmpty()){
+                System.out.println("    " + result.report.summary());
+            }
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d files (%d failed), %d lines in %.3f s: %.1f files/s, %.1f lines/s%n",
+            files.size(), failed, sourceLines, seconds, files.size() / seconds, sourceLines / seconds);
+    }
+
+    private static BatchResult compileFile(Path file, Path outDir, TranslationOptions options){
+        BatchResult result = new BatchResult();
+        result.input = file;
+        long start = System.nanoTime();
+        try {
+            byte[] source = Files.readAllBytes(file);
+            for (byte b : source){
+                if (b == '\n') result.sourceLines++;
+            }
+            String name = file.getFileName().toString();
+            name = name.substring(0, name.length() - ".java".length());
+            // written beside the target and moved over it only once the whole program is out
+            Path output = outDir.resolve(name + ".sparrow");
+            Path partial = outDir.resolve(name + ".sparrow.tmp");
+            try {
+                try (Writer out = Files.newBufferedWriter(partial)){
+                    result.report = translate(new ByteArrayInputStream(source), options, new WriterEmitter(out));
+                }
+                Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception | TokenMgrError e){
+                // an older output would look like this run's result
+                Files.deleteIfExists(output);
+                throw e;
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (Exception | TokenMgrError e){
+            result.error = e;
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+}
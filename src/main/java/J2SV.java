@@ -0,0 +1,199 @@
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import Env.ListEmitter;
+import Env.OptimizationReport;
+import Env.ProgramEmitter;
+import Env.TranslationOptions;
+import IR.SparrowLoader;
+import IR.SparrowVPrinter;
+import RegAlloc.GraphColoringAllocator;
+import RegAlloc.LinearScanAllocator;
+import RegAlloc.RegisterAllocator;
+import minijava.ParseException;
+import minijava.TokenMgrError;
+
+
+
+public class J2SV {
+
+    private static final String[] PHASES = { "translate", "print", "parse", "allocate", "emit" };
+
+    public static void main(String [] args){
+        RegisterAllocator allocator = new LinearScanAllocator();
+        boolean compare = false;
+        int rounds = 10;
+        List<String> flags = new ArrayList<>();
+        List<Path> inputs = new ArrayList<>();
+        for (String arg : args){
+            if (arg.equals("--allocator=linear")){
+                allocator = new LinearScanAllocator();
+            } else if (arg.equals("--allocator=coloring")){
+                allocator = new GraphColoringAllocator();
+            } else if (arg.equals("--compare")){
+                compare = true;
+            } else if (arg.startsWith("--rounds=")){
+                rounds = Integer.parseInt(arg.substring("--rounds=".length()));
+            } else if (arg.startsWith("--")){
+                flags.add(arg);
+            } else {
+                inputs.add(Paths.get(arg));
+            }
+        }
+        TranslationOptions options = TranslationOptions.fromArgs(flags.toArray(new String[0]));
+
+        if (compare){
+            compare(inputs, options, allocator, rounds);
+            return;
+        }
+
+        try{
+            ProgramEmitter emitter = new ProgramEmitter();
+            OptimizationReport report = J2S.translate(System.in, options, emitter);
+            if (options.report){
+                report.print(System.err);
+            }
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+            SparrowVPrinter.print(S2SV.translate(emitter.getProgram(), allocator), out);
+            out.flush();
+        } catch (Exception e){
+            System.out.println(e);
+        }
+    }
+
+    /**
+     * Translates one MiniJava program to Sparrow-V without leaving the JVM: the
+     * translator's instruction nodes are collected into a sparrow.Program and go
+     * straight to register allocation.
+     */
+    public static sparrowv.Program compile(InputStream in, TranslationOptions options, RegisterAllocator allocator)
+            throws ParseException {
+        ProgramEmitter emitter = new ProgramEmitter();
+        J2S.translate(in, options, emitter);
+        return S2SV.translate(emitter.getProgram(), allocator);
+    }
+
+    /**
+     * Runs every input through the text pipeline (J2S lines, printed, parsed back
+     * with ReentrantSparrowParser and SparrowConstructor, then S2SV) and through
+     * compile, checks both give the same Sparrow-V and prints the average time of
+     * each phase over rounds runs after as many warm-up runs.
+     */
+    private static void compare(List<Path> inputs, TranslationOptions options, RegisterAllocator allocator,
+                                int rounds){
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs){
+            if (Files.isDirectory(input)){
+                try (Stream<Path> walk = Files.walk(input)){
+                    files.addAll(walk.filter(p -> p.toString().endsWith(".java")).sorted().collect(Collectors.toList()));
+                } catch (IOException e){
+                    System.err.println("Could not list " + input + ": " + e);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+
+        long[] textTotal = new long[PHASES.length];
+        long[] memoryTotal = new long[PHASES.length];
+        System.out.printf("%-40s %12s %12s %10s%n", "input", "text ms", "in-memory ms", "saved ms");
+        for (Path file : files){
+            long[] text = new long[PHASES.length];
+            long[] memory = new long[PHASES.length];
+            try {
+                byte[] source = Files.readAllBytes(file);
+                String expected = null;
+                for (int round = 0; round < 2 * rounds; round++){
+                    boolean timed = round >= rounds;
+                    String viaText = textPipeline(source, options, allocator, timed ? text : new long[PHASES.length]);
+                    String inMemory = memoryPipeline(source, options, allocator,
+                        timed ? memory : new long[PHASES.length]);
+                    if (expected == null){
+                        expected = viaText;
+                        if (!viaText.equals(inMemory)) throw new IllegalStateException("pipelines disagree");
+                    }
+                }
+            } catch (Exception | TokenMgrError e){
+                System.out.printf("%-40s FAILED %s%n", file, e.toString().lines().findFirst().orElse(""));
+                continue;
+            }
+            for (int phase = 0; phase < PHASES.length; phase++){
+                textTotal[phase] += text[phase];
+                memoryTotal[phase] += memory[phase];
+            }
+            double textMs = sum(text) / 1e6 / rounds;
+            double memoryMs = sum(memory) / 1e6 / rounds;
+            System.out.printf("%-40s %12.3f %12.3f %10.3f%n", file, textMs, memoryMs, textMs - memoryMs);
+        }
+
+        System.out.println();
+        System.out.printf("%-40s %12s %12s %10s%n", "phase (all inputs)", "text ms", "in-memory ms", "saved ms");
+        for (int phase = 0; phase < PHASES.length; phase++){
+            double textMs = textTotal[phase] / 1e6 / rounds;
+            double memoryMs = memoryTotal[phase] / 1e6 / rounds;
+            System.out.printf("%-40s %12.3f %12.3f %10.3f%n", PHASES[phase], textMs, memoryMs, textMs - memoryMs);
+        }
+        double textMs = sum(textTotal) / 1e6 / rounds;
+        double memoryMs = sum(memoryTotal) / 1e6 / rounds;
+        System.out.printf("%-40s %12.3f %12.3f %10.3f%n", "total", textMs, memoryMs, textMs - memoryMs);
+    }
+
+    // adds each phase's nanoseconds to nanos, in PHASES order
+    private static String textPipeline(byte[] source, TranslationOptions options, RegisterAllocator allocator,
+                                       long[] nanos) throws Exception {
+        long start = System.nanoTime();
+        ListEmitter emitter = new ListEmitter();
+        J2S.translate(new ByteArrayInputStream(source), options, emitter);
+        long translated = System.nanoTime();
+        byte[] sparrow = (String.join("\n", emitter.getLines()) + "\n").getBytes();
+        long printed = System.nanoTime();
+        sparrow.Program program = SparrowLoader.parseSparrow(sparrow);
+        long parsed = System.nanoTime();
+        sparrowv.Program lowered = S2SV.translate(program, allocator);
+        long allocated = System.nanoTime();
+        StringBuilder out = new StringBuilder();
+        SparrowVPrinter.print(lowered, out);
+        long emitted = System.nanoTime();
+        nanos[0] += translated - start;
+        nanos[1] += printed - translated;
+        nanos[2] += parsed - printed;
+        nanos[3] += allocated - parsed;
+        nanos[4] += emitted - allocated;
+        return out.toString();
+    }
+
+    private static String memoryPipeline(byte[] source, TranslationOptions options, RegisterAllocator allocator,
+                                         long[] nanos) throws Exception {
+        long start = System.nanoTime();
+        ProgramEmitter emitter = new ProgramEmitter();
+        J2S.translate(new ByteArrayInputStream(source), options, emitter);
+        sparrow.Program program = emitter.getProgram();
+        long translated = System.nanoTime();
+        sparrowv.Program lowered = S2SV.translate(program, allocator);
+        long allocated = System.nanoTime();
+        StringBuilder out = new StringBuilder();
+        SparrowVPrinter.print(lowered, out);
+        long emitted = System.nanoTime();
+        nanos[0] += translated - start;
+        nanos[3] += allocated - translated;
+        nanos[4] += emitted - allocated;
+        return out.toString();
+    }
+
+    private static long sum(long[] nanos){
+        long total = 0;
+        for (long n : nanos) total += n;
+        return total;
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import IR.ParseException;
+import IR.SparrowLoader;
+import IR.SparrowPrinter;
+import IR.SparrowVPrinter;
+
+
+
+public class LoaderBenchmark {
+
+    private interface Loader {
+        Object load(byte[] source) throws ParseException;
+    }
+
+    /**
+     * Loads each file named on the command line (standard input if none) as
+     * Sparrow and as Sparrow-V with both SparrowLoader and the two-phase JavaCC
+     * path, checks they print the same program and reports the average load time
+     * of each over --rounds=N runs after as many warm-up runs.
+     */
+    public static void main(String [] args) throws IOException, ParseException {
+        int rounds = 10;
+        List<String> files = new ArrayList<>();
+        for (String arg : args){
+            if (arg.startsWith("--rounds=")){
+                rounds = Integer.parseInt(arg.substring("--rounds=".length()));
+            } else {
+                files.add(arg);
+            }
+        }
+
+        List<byte[]> sources = new ArrayList<>();
+        if (files.isEmpty()){
+            files.add("(stdin)");
+            sources.add(System.in.readAllBytes());
+        }
+        for (String file : files){
+            if (sources.size() < files.size()) sources.add(Files.readAllBytes(Paths.get(file)));
+        }
+
+        System.out.printf("%-40s %8s %-9s %12s %12s %8s%n", "input", "KB", "dialect", "two-phase ms", "loader ms",
+            "speedup");
+        for (int i = 0; i < files.size(); i++){
+            byte[] source = sources.get(i);
+            if (!text(SparrowLoader.loadSparrow(source)).equals(text(SparrowLoader.parseSparrow(source)))
+                    || !text(SparrowLoader.loadSparrowV(source)).equals(text(SparrowLoader.parseSparrowV(source)))){
+                throw new IllegalStateException(files.get(i) + ": the loaders disagree");
+            }
+            report(files.get(i), source, "sparrow", SparrowLoader::parseSparrow, SparrowLoader::loadSparrow, rounds);
+            report(files.get(i), source, "sparrowv", SparrowLoader::parseSparrowV, SparrowLoader::loadSparrowV, rounds);
+        }
+    }
+
+    private static String text(sparrow.Program program){
+        StringBuilder text = new StringBuilder();
+        SparrowPrinter.print(program, text);
+        return text.toString();
+    }
+
+    private static String text(sparrowv.Program program){
+        StringBuilder text = new StringBuilder();
+        SparrowVPrinter.print(program, text);
+        return text.toString();
+    }
+
+    private static void report(String file, byte[] source, String dialect, Loader twoPhase, Loader direct,
+                               int rounds) throws ParseException {
+        double before = time(source, twoPhase, rounds);
+        double after = time(source, direct, rounds);
+        System.out.printf("%-40s %8d %-9s %12.3f %12.3f %7.1fx%n", file, source.length / 1024, dialect, before, after,
+            before / after);
+    }
+
+    // average milliseconds per load, after as many untimed loads
+    private static double time(byte[] source, Loader loader, int rounds) throws ParseException {
+        for (int i = 0; i < rounds; i++) loader.load(source);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) loader.load(source);
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+}
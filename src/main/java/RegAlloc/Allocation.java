@@ -0,0 +1,71 @@
+package RegAlloc;
+
+import IR.token.Identifier;
+import sparrow.Move_Id_Id;
+
+/**
+ * Where each identifier of one function lives: a register, or a stack identifier when spilled.
+ * Registers are kept in an array indexed by interval id.
+ */
+public class Allocation {
+    private final LiveIntervals liveness;
+    private final Reg[] registers;
+    private int spilled = 0;
+    long nanos = 0;
+
+    public Allocation(LiveIntervals liveness) {
+        this.liveness = liveness;
+        this.registers = new Reg[liveness.size()];
+    }
+
+    public LiveIntervals getLiveness() {
+        return this.liveness;
+    }
+
+    void assign(Interval interval, Reg register) {
+        this.registers[interval.id] = register;
+    }
+
+    void countSpill() {
+        this.spilled++;
+    }
+
+    public Reg registerOf(Interval interval) {
+        return this.registers[interval.id];
+    }
+
+    public Reg registerOf(Identifier id) {
+        return this.registers[this.liveness.get(id).id];
+    }
+
+    public int getSpilled() {
+        return this.spilled;
+    }
+
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    // copies whose two sides share a register, which SparrowVLowering drops
+    public int getMovesRemoved() {
+        int removed = 0;
+        for (sparrow.Instruction instr : this.liveness.getCode()) {
+            if (instr instanceof Move_Id_Id) {
+                Reg lhs = registerOf(((Move_Id_Id) instr).lhs);
+                if (lhs != null && lhs == registerOf(((Move_Id_Id) instr).rhs)) removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Stack identifier that holds a spilled value; renamed when the Sparrow name
+     * would read as a register in Sparrow-V.
+     */
+    public static String stackName(String name) {
+        if (name.matches("[ast][0-9]+") || name.startsWith("stack_")) {
+            return "v_" + name;
+        }
+        return name;
+    }
+}
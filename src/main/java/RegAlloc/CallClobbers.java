@@ -0,0 +1,60 @@
+package RegAlloc;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import IR.token.FunctionName;
+import sparrow.Call;
+
+/**
+ * Caller-saved registers each function may overwrite, including through the
+ * functions it calls. Calls whose target is not known clobber every caller-saved
+ * register, and the summaries are iterated to a fixpoint so recursion is covered.
+ */
+public class CallClobbers {
+    static final Set<Reg> ALL = EnumSet.of(
+        Reg.T0, Reg.T1, Reg.T2, Reg.T3, Reg.T4, Reg.T5, Reg.A2, Reg.A3, Reg.A4, Reg.A5, Reg.A6, Reg.A7);
+
+    private final HashMap<String, EnumSet<Reg>> clobbered = new HashMap<>();
+
+    public CallClobbers(List<Allocation> allocations) {
+        for (Allocation allocation : allocations) {
+            EnumSet<Reg> registers = EnumSet.of(Reg.T0, Reg.T1, Reg.T2);
+            LiveIntervals liveness = allocation.getLiveness();
+            for (Interval interval : liveness.getIntervals()) {
+                Reg register = allocation.registerOf(interval);
+                if (register != null && !register.isCalleeSaved()) registers.add(register);
+            }
+            for (int position : liveness.getCallPositions()) {
+                registers.addAll(argumentRegisters((Call) liveness.getCode().get(position)));
+            }
+            this.clobbered.put(liveness.getFunction().functionName.name, registers);
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Allocation allocation : allocations) {
+                LiveIntervals liveness = allocation.getLiveness();
+                EnumSet<Reg> registers = this.clobbered.get(liveness.getFunction().functionName.name);
+                for (int position : liveness.getCallPositions()) {
+                    changed |= registers.addAll(this.of(liveness.getCallee(position)));
+                }
+            }
+        }
+    }
+
+    // a registers the caller fills for this call
+    static Set<Reg> argumentRegisters(Call call) {
+        EnumSet<Reg> registers = EnumSet.noneOf(Reg.class);
+        for (int k = 0; k < 6 && k < call.args.size(); k++) registers.add(Reg.argument(k));
+        return registers;
+    }
+
+    public Set<Reg> of(FunctionName callee) {
+        Set<Reg> registers = callee == null ? null : this.clobbered.get(callee.name);
+        return registers == null ? ALL : registers;
+    }
+}
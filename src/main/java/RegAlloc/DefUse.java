@@ -0,0 +1,121 @@
+package RegAlloc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import IR.token.Identifier;
+import IR.token.Label;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Call;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Store;
+import sparrow.Subtract;
+
+/**
+ * Which identifiers a Sparrow instruction reads and writes, and where it can jump.
+ */
+public final class DefUse {
+
+    private DefUse() {
+    }
+
+    public static Identifier def(Instruction instr) {
+        if (instr instanceof Move_Id_Integer) return ((Move_Id_Integer) instr).lhs;
+        if (instr instanceof Move_Id_FuncName) return ((Move_Id_FuncName) instr).lhs;
+        if (instr instanceof Add) return ((Add) instr).lhs;
+        if (instr instanceof Subtract) return ((Subtract) instr).lhs;
+        if (instr instanceof Multiply) return ((Multiply) instr).lhs;
+        if (instr instanceof LessThan) return ((LessThan) instr).lhs;
+        if (instr instanceof Load) return ((Load) instr).lhs;
+        if (instr instanceof Move_Id_Id) return ((Move_Id_Id) instr).lhs;
+        if (instr instanceof Alloc) return ((Alloc) instr).lhs;
+        if (instr instanceof Call) return ((Call) instr).lhs;
+        return null;
+    }
+
+    public static List<Identifier> uses(Instruction instr) {
+        if (instr instanceof Add) return List.of(((Add) instr).arg1, ((Add) instr).arg2);
+        if (instr instanceof Subtract) return List.of(((Subtract) instr).arg1, ((Subtract) instr).arg2);
+        if (instr instanceof Multiply) return List.of(((Multiply) instr).arg1, ((Multiply) instr).arg2);
+        if (instr instanceof LessThan) return List.of(((LessThan) instr).arg1, ((LessThan) instr).arg2);
+        if (instr instanceof Load) return List.of(((Load) instr).base);
+        if (instr instanceof Store) return List.of(((Store) instr).base, ((Store) instr).rhs);
+        if (instr instanceof Move_Id_Id) return List.of(((Move_Id_Id) instr).rhs);
+        if (instr instanceof Alloc) return List.of(((Alloc) instr).size);
+        if (instr instanceof Print) return List.of(((Print) instr).content);
+        if (instr instanceof IfGoto) return List.of(((IfGoto) instr).condition);
+        if (instr instanceof Call) {
+            Call call = (Call) instr;
+            List<Identifier> uses = new ArrayList<>(call.args.size() + 1);
+            uses.add(call.callee);
+            uses.addAll(call.args);
+            return uses;
+        }
+        return Collections.emptyList();
+    }
+
+    // points every read in instr at replace(read), in place
+    public static void replaceUses(Instruction instr, Function<Identifier, Identifier> replace) {
+        if (instr instanceof Add) {
+            Add add = (Add) instr;
+            add.arg1 = replace.apply(add.arg1);
+            add.arg2 = replace.apply(add.arg2);
+        } else if (instr instanceof Subtract) {
+            Subtract sub = (Subtract) instr;
+            sub.arg1 = replace.apply(sub.arg1);
+            sub.arg2 = replace.apply(sub.arg2);
+        } else if (instr instanceof Multiply) {
+            Multiply mul = (Multiply) instr;
+            mul.arg1 = replace.apply(mul.arg1);
+            mul.arg2 = replace.apply(mul.arg2);
+        } else if (instr instanceof LessThan) {
+            LessThan less = (LessThan) instr;
+            less.arg1 = replace.apply(less.arg1);
+            less.arg2 = replace.apply(less.arg2);
+        } else if (instr instanceof Load) {
+            ((Load) instr).base = replace.apply(((Load) instr).base);
+        } else if (instr instanceof Store) {
+            Store store = (Store) instr;
+            store.base = replace.apply(store.base);
+            store.rhs = replace.apply(store.rhs);
+        } else if (instr instanceof Move_Id_Id) {
+            ((Move_Id_Id) instr).rhs = replace.apply(((Move_Id_Id) instr).rhs);
+        } else if (instr instanceof Alloc) {
+            ((Alloc) instr).size = replace.apply(((Alloc) instr).size);
+        } else if (instr instanceof Print) {
+            ((Print) instr).content = replace.apply(((Print) instr).content);
+        } else if (instr instanceof IfGoto) {
+            ((IfGoto) instr).condition = replace.apply(((IfGoto) instr).condition);
+        } else if (instr instanceof Call) {
+            Call call = (Call) instr;
+            call.callee = replace.apply(call.callee);
+            List<Identifier> args = new ArrayList<>(call.args.size());
+            for (Identifier arg : call.args) args.add(replace.apply(arg));
+            call.args = args;
+        }
+    }
+
+    // label this instruction may jump to, or null
+    public static Label target(Instruction instr) {
+        if (instr instanceof Goto) return ((Goto) instr).label;
+        if (instr instanceof IfGoto) return ((IfGoto) instr).label;
+        return null;
+    }
+
+    // false for goto and error, which never continue with the next instruction
+    public static boolean fallsThrough(Instruction instr) {
+        return !(instr instanceof Goto) && !(instr instanceof sparrow.ErrorMessage);
+    }
+}
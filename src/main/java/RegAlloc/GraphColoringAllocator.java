@@ -0,0 +1,195 @@
+package RegAlloc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import IR.token.Identifier;
+import sparrow.Instruction;
+
+/**
+ * Chaitin/Briggs graph coloring. Copies are first coalesced conservatively
+ * (Briggs test: the merged node has fewer than K neighbours of degree K or more),
+ * then nodes are simplified and colored optimistically. Spill candidates are the
+ * nodes with the lowest cost per neighbour, where each use or definition costs
+ * 10 to the power of its loop depth. Nodes live across a call prefer callee-saved
+ * colors and the rest caller-saved ones.
+ */
+public class GraphColoringAllocator implements RegisterAllocator {
+
+    private final List<Reg> registers;
+
+    public GraphColoringAllocator() {
+        this(REGISTERS);
+    }
+
+    public GraphColoringAllocator(List<Reg> registers) {
+        this.registers = registers;
+    }
+
+    @Override
+    public Allocation allocate(LiveIntervals liveness) {
+        long start = System.nanoTime();
+        Allocation allocation = new Allocation(liveness);
+        int k = this.registers.size();
+
+        InterferenceGraph graph = new InterferenceGraph(liveness);
+        int[] alias = new int[graph.size];
+        for (int i = 0; i < graph.size; i++) alias[i] = i;
+        this.coalesce(graph, alias, k);
+
+        double[] cost = this.spillCosts(liveness, alias);
+        int[] color = this.color(liveness, graph, alias, cost, k);
+
+        for (int i = 0; i < graph.size; i++) {
+            int c = color[find(alias, i)];
+            Interval interval = liveness.get(i);
+            if (c < 0) {
+                allocation.countSpill();
+            } else {
+                allocation.assign(interval, this.registers.get(c));
+            }
+        }
+
+        allocation.nanos = System.nanoTime() - start;
+        return allocation;
+    }
+
+    private static int find(int[] alias, int node) {
+        while (alias[node] != node) {
+            alias[node] = alias[alias[node]];
+            node = alias[node];
+        }
+        return node;
+    }
+
+    private void coalesce(InterferenceGraph graph, int[] alias, int k) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int[] move : graph.moves) {
+                int u = find(alias, move[0]);
+                int v = find(alias, move[1]);
+                if (u == v || graph.interferes(u, v)) continue;
+
+                HashSet<Integer> neighbours = new HashSet<>(graph.adjacency.get(u));
+                neighbours.addAll(graph.adjacency.get(v));
+                int significant = 0;
+                for (int t : neighbours) {
+                    if (graph.degree(t) >= k) significant++;
+                }
+                if (significant >= k) continue;
+
+                graph.merge(u, v);
+                alias[v] = u;
+                changed = true;
+            }
+        }
+    }
+
+    private double[] spillCosts(LiveIntervals liveness, int[] alias) {
+        double[] cost = new double[liveness.size()];
+        List<Instruction> code = liveness.getCode();
+        for (int i = 0; i < code.size(); i++) {
+            double weight = Math.pow(10, Math.min(liveness.getLoopDepth(i), 8));
+            Identifier def = DefUse.def(code.get(i));
+            if (def != null) cost[find(alias, liveness.get(def).id)] += weight;
+            for (Identifier use : DefUse.uses(code.get(i))) {
+                cost[find(alias, liveness.get(use).id)] += weight;
+            }
+        }
+        return cost;
+    }
+
+    private int[] color(LiveIntervals liveness, InterferenceGraph graph, int[] alias, double[] cost, int k) {
+        int n = graph.size;
+        int[] degree = new int[n];
+        boolean[] removed = new boolean[n];
+        ArrayDeque<Integer> lowDegree = new ArrayDeque<>();
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        int remaining = 0;
+        for (int i = 0; i < n; i++) {
+            if (find(alias, i) != i) {
+                removed[i] = true;
+                continue;
+            }
+            degree[i] = graph.degree(i);
+            remaining++;
+            if (degree[i] < k) lowDegree.add(i);
+        }
+
+        // simplify; when every node is significant push the cheapest one optimistically
+        while (remaining > 0) {
+            int node = -1;
+            while (!lowDegree.isEmpty() && node < 0) {
+                int candidate = lowDegree.poll();
+                if (!removed[candidate]) node = candidate;
+            }
+            if (node < 0) {
+                double best = Double.MAX_VALUE;
+                for (int i = 0; i < n; i++) {
+                    if (removed[i]) continue;
+                    double ratio = cost[i] / Math.max(1, degree[i]);
+                    if (ratio < best) {
+                        best = ratio;
+                        node = i;
+                    }
+                }
+            }
+            removed[node] = true;
+            remaining--;
+            stack.push(node);
+            for (int t : graph.adjacency.get(node)) {
+                if (!removed[t] && --degree[t] == k - 1) lowDegree.add(t);
+            }
+        }
+
+        // preferred colors: incoming parameter registers, then the color of a copy partner, then the right register class
+        List<List<Integer>> partners = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) partners.add(new ArrayList<>());
+        for (int[] move : graph.moves) {
+            int u = find(alias, move[0]);
+            int v = find(alias, move[1]);
+            if (u != v) {
+                partners.get(u).add(v);
+                partners.get(v).add(u);
+            }
+        }
+
+        boolean[] crossesCall = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (liveness.get(i).callsCrossed > 0) crossesCall[find(alias, i)] = true;
+        }
+
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            boolean[] taken = new boolean[k];
+            for (int t : graph.adjacency.get(node)) {
+                if (color[t] >= 0) taken[color[t]] = true;
+            }
+
+            int chosen = -1;
+            int parameter = liveness.get(node).parameter;
+            if (!crossesCall[node] && parameter >= 0 && parameter < 6) {
+                int incoming = this.registers.indexOf(Reg.argument(parameter));
+                if (incoming >= 0 && !taken[incoming]) chosen = incoming;
+            }
+            for (int i = 0; chosen < 0 && i < partners.get(node).size(); i++) {
+                int c = color[partners.get(node).get(i)];
+                if (c >= 0 && !taken[c]) chosen = c;
+            }
+            for (int c = 0; chosen < 0 && c < k; c++) {
+                if (!taken[c] && this.registers.get(c).isCalleeSaved() == crossesCall[node]) chosen = c;
+            }
+            for (int c = 0; chosen < 0 && c < k; c++) {
+                if (!taken[c]) chosen = c;
+            }
+            color[node] = chosen;
+        }
+        return color;
+    }
+}
@@ -0,0 +1,95 @@
+package RegAlloc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import Flow.SparseBitSet;
+import IR.token.Identifier;
+import sparrow.Instruction;
+import sparrow.Move_Id_Id;
+
+/**
+ * Interference graph over the identifier ids of LiveIntervals, built by walking
+ * each block backwards from its live-out set. A copy x = y does not make x and y
+ * interfere, so such pairs are left as coalescing candidates in moves.
+ */
+class InterferenceGraph {
+    final int size;
+    final List<HashSet<Integer>> adjacency;
+    private final HashSet<Long> edges = new HashSet<>();
+
+    // {lhs, rhs, position} of every Move_Id_Id
+    final List<int[]> moves = new ArrayList<>();
+
+    InterferenceGraph(LiveIntervals liveness) {
+        this.size = liveness.size();
+        this.adjacency = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) this.adjacency.add(new HashSet<>());
+
+        List<Instruction> code = liveness.getCode();
+        for (int b = 0; b < liveness.getBlockCount(); b++) {
+            SparseBitSet live = liveness.getLiveOut(b).clone();
+            for (int i = liveness.getBlockEnd(b); i >= liveness.getBlockStart(b); i--) {
+                Instruction instr = code.get(i);
+                Identifier def = DefUse.def(instr);
+                int copied = -1;
+                if (instr instanceof Move_Id_Id) {
+                    copied = liveness.get(((Move_Id_Id) instr).rhs).id;
+                    this.moves.add(new int[] { liveness.get(def).id, copied, i });
+                }
+                if (def != null) {
+                    int d = liveness.get(def).id;
+                    for (int l = live.nextSetBit(0); l >= 0; l = live.nextSetBit(l + 1)) {
+                        if (l != copied) this.addEdge(d, l);
+                    }
+                    live.clear(d);
+                }
+                for (Identifier use : DefUse.uses(instr)) {
+                    live.set(liveness.get(use).id);
+                }
+            }
+        }
+
+        // parameters all arrive together, alongside whatever is live on entry
+        List<Identifier> params = liveness.getFunction().formalParameters;
+        SparseBitSet entry = liveness.getBlockCount() > 0 ? liveness.getLiveIn(0).clone() : new SparseBitSet();
+        for (Identifier param : params) entry.set(liveness.get(param).id);
+        for (Identifier param : params) {
+            int p = liveness.get(param).id;
+            for (int l = entry.nextSetBit(0); l >= 0; l = entry.nextSetBit(l + 1)) {
+                this.addEdge(p, l);
+            }
+        }
+    }
+
+    private static long key(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    void addEdge(int a, int b) {
+        if (a == b) return;
+        if (this.edges.add(key(a, b))) {
+            this.adjacency.get(a).add(b);
+            this.adjacency.get(b).add(a);
+        }
+    }
+
+    boolean interferes(int a, int b) {
+        return this.edges.contains(key(a, b));
+    }
+
+    // folds v's edges into u, as when the two are coalesced
+    void merge(int u, int v) {
+        for (int t : this.adjacency.get(v)) {
+            this.adjacency.get(t).remove(v);
+            this.edges.remove(key(t, v));
+            this.addEdge(u, t);
+        }
+        this.adjacency.get(v).clear();
+    }
+
+    int degree(int node) {
+        return this.adjacency.get(node).size();
+    }
+}
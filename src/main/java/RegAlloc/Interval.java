@@ -0,0 +1,54 @@
+package RegAlloc;
+
+/**
+ * Live range of one Sparrow identifier, as instruction positions.
+ * Parameters start at -1 and the returned identifier lives until the
+ * position after the last instruction.
+ */
+public class Interval {
+    public final String name;
+    public final int id;
+    int start = Integer.MAX_VALUE;
+    int end = Integer.MIN_VALUE;
+
+    // parameter number, or -1
+    int parameter = -1;
+
+    // calls strictly inside the interval
+    int callsCrossed = 0;
+
+    Interval(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    void cover(int position) {
+        if (position < this.start) this.start = position;
+        if (position > this.end) this.end = position;
+    }
+
+    public int getStart() {
+        return this.start;
+    }
+
+    public int getEnd() {
+        return this.end;
+    }
+
+    public int getParameter() {
+        return this.parameter;
+    }
+
+    public int getCallsCrossed() {
+        return this.callsCrossed;
+    }
+
+    public boolean isLiveAcross(int position) {
+        return this.start < position && position < this.end;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + "[" + this.start + ", " + this.end + "]";
+    }
+}
@@ -0,0 +1,97 @@
+package RegAlloc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Poletto–Sarkar linear scan over LiveIntervals. Intervals are visited by start;
+ * the active set is ordered by end so expiring and picking a spill victim are
+ * both logarithmic, giving O(n log n) per function. When no register is free the
+ * interval that ends last is spilled for its whole range. Intervals that cross a
+ * call prefer callee-saved registers and the rest caller-saved ones, so calls and
+ * function entries save as little as possible.
+ */
+public class LinearScanAllocator implements RegisterAllocator {
+
+    private static final Comparator<Interval> BY_START =
+        Comparator.comparingInt(Interval::getStart).thenComparingInt(i -> i.id);
+    private static final Comparator<Interval> BY_END =
+        Comparator.comparingInt(Interval::getEnd).thenComparingInt(i -> i.id);
+
+    private final List<Reg> registers;
+    private final EnumMap<Reg, Integer> registerIndex = new EnumMap<>(Reg.class);
+
+    public LinearScanAllocator() {
+        this(REGISTERS);
+    }
+
+    public LinearScanAllocator(List<Reg> registers) {
+        this.registers = registers;
+        for (int i = 0; i < registers.size(); i++) {
+            this.registerIndex.put(registers.get(i), i);
+        }
+    }
+
+    @Override
+    public Allocation allocate(LiveIntervals liveness) {
+        long start = System.nanoTime();
+        Allocation allocation = new Allocation(liveness);
+
+        List<Interval> sorted = new ArrayList<>(liveness.getIntervals());
+        sorted.sort(BY_START);
+
+        TreeSet<Interval> active = new TreeSet<>(BY_END);
+        HashMap<Interval, Integer> held = new HashMap<>();
+        TreeSet<Integer> free = new TreeSet<>();
+        for (int i = 0; i < this.registers.size(); i++) free.add(i);
+
+        for (Interval interval : sorted) {
+            while (!active.isEmpty() && active.first().end < interval.start) {
+                free.add(held.remove(active.pollFirst()));
+            }
+
+            // incoming parameters already sit in a2-a7, so keep them there unless a call would clobber them
+            Integer choice = null;
+            boolean crossesCall = interval.callsCrossed > 0;
+            if (!crossesCall && interval.parameter >= 0 && interval.parameter < 6) {
+                Integer incoming = this.registerIndex.get(Reg.argument(interval.parameter));
+                if (incoming != null && free.contains(incoming)) choice = incoming;
+            }
+            if (choice == null) choice = this.pick(free, crossesCall);
+
+            if (choice != null) {
+                free.remove(choice);
+                held.put(interval, choice);
+                active.add(interval);
+                allocation.assign(interval, this.registers.get(choice));
+                continue;
+            }
+
+            Interval victim = active.isEmpty() ? null : active.last();
+            if (victim != null && victim.end > interval.end) {
+                Integer register = held.remove(victim);
+                active.remove(victim);
+                allocation.assign(victim, null);
+                held.put(interval, register);
+                active.add(interval);
+                allocation.assign(interval, this.registers.get(register));
+            }
+            allocation.countSpill();
+        }
+
+        allocation.nanos = System.nanoTime() - start;
+        return allocation;
+    }
+
+    // first free register of the wanted class, else any free register
+    private Integer pick(TreeSet<Integer> free, boolean calleeSaved) {
+        for (int register : free) {
+            if (this.registers.get(register).isCalleeSaved() == calleeSaved) return register;
+        }
+        return free.isEmpty() ? null : free.first();
+    }
+}
@@ -0,0 +1,193 @@
+package RegAlloc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import Flow.ControlFlowGraph;
+import Flow.Liveness;
+import Flow.SparrowDialect;
+import Flow.SparseBitSet;
+import Flow.SymbolPool;
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import sparrow.Call;
+import sparrow.FunctionDecl;
+import sparrow.Instruction;
+import sparrow.Move_Id_FuncName;
+
+/**
+ * Live intervals of every identifier in one Sparrow function.
+ * Liveness is solved per basic block with the Flow framework; each identifier
+ * then gets the single range from its first to its last live position.
+ * Interval ids are the identifier ids of the function's SymbolPool.
+ */
+public class LiveIntervals {
+    private final FunctionDecl function;
+    private final List<Instruction> code;
+    private final SymbolPool symbols = new SymbolPool();
+    private final List<Interval> byId = new ArrayList<>();
+    private final ControlFlowGraph<Instruction> cfg;
+    private Liveness<Instruction> liveness;
+    private int[] callPositions;
+    private int[] loopDepth;
+
+    public LiveIntervals(FunctionDecl function) {
+        this.function = function;
+        this.code = function.block.instructions;
+        this.cfg = new ControlFlowGraph<>(this.code, SparrowDialect.INSTANCE, this.symbols);
+        this.compute();
+    }
+
+    public FunctionDecl getFunction() {
+        return this.function;
+    }
+
+    public List<Instruction> getCode() {
+        return this.code;
+    }
+
+    public ControlFlowGraph<Instruction> getControlFlowGraph() {
+        return this.cfg;
+    }
+
+    public SymbolPool getSymbols() {
+        return this.symbols;
+    }
+
+    public Collection<Interval> getIntervals() {
+        return this.byId;
+    }
+
+    public Interval get(Identifier id) {
+        int symbol = this.symbols.find(id);
+        return symbol < 0 ? null : this.byId.get(symbol);
+    }
+
+    public int[] getCallPositions() {
+        return this.callPositions;
+    }
+
+    public Interval get(int id) {
+        return this.byId.get(id);
+    }
+
+    public int size() {
+        return this.byId.size();
+    }
+
+    public int getBlockCount() {
+        return this.cfg.size();
+    }
+
+    public int getBlockStart(int block) {
+        return this.cfg.getStart(block);
+    }
+
+    public int getBlockEnd(int block) {
+        return this.cfg.getEnd(block);
+    }
+
+    // identifier ids live on entry to / exit from a block
+    public SparseBitSet getLiveIn(int block) {
+        return this.liveness.getLiveIn(block);
+    }
+
+    public SparseBitSet getLiveOut(int block) {
+        return this.liveness.getLiveOut(block);
+    }
+
+    // number of backward jumps whose range covers the position
+    public int getLoopDepth(int position) {
+        if (position < 0 || position >= this.loopDepth.length) return 0;
+        return this.loopDepth[position];
+    }
+
+    // identifier ids still needed after the instruction at position
+    public SparseBitSet getLiveAfter(int position) {
+        return this.liveness.getLiveAfter(position);
+    }
+
+    // function a call at position jumps to when its target was loaded in the same block, or null
+    public FunctionName getCallee(int position) {
+        int callee = this.symbols.id(((Call) this.code.get(position)).callee);
+        for (int i = position - 1; i >= this.cfg.getStart(this.cfg.blockOf(position)); i--) {
+            Instruction instr = this.code.get(i);
+            Identifier def = DefUse.def(instr);
+            if (def != null && this.symbols.id(def) == callee) {
+                return instr instanceof Move_Id_FuncName ? ((Move_Id_FuncName) instr).rhs : null;
+            }
+        }
+        return null;
+    }
+
+    private Interval intern(Identifier id) {
+        int symbol = this.symbols.id(id);
+        if (symbol == this.byId.size()) {
+            this.byId.add(new Interval(this.symbols.name(symbol), symbol));
+        }
+        return this.byId.get(symbol);
+    }
+
+    private void compute() {
+        int n = this.code.size();
+        List<Identifier> params = this.function.formalParameters;
+        for (int i = 0; i < params.size(); i++) {
+            Interval param = intern(params.get(i));
+            param.parameter = i;
+            param.cover(-1);
+        }
+
+        // number identifiers and find calls
+        List<Integer> calls = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Instruction instr = this.code.get(i);
+            Identifier def = DefUse.def(instr);
+            if (def != null) intern(def).cover(i);
+            for (Identifier use : DefUse.uses(instr)) intern(use).cover(i);
+            if (instr instanceof Call) calls.add(i);
+        }
+        Interval returned = intern(this.function.block.return_id);
+        returned.cover(n);
+
+        this.callPositions = new int[calls.size()];
+        for (int i = 0; i < calls.size(); i++) this.callPositions[i] = calls.get(i);
+
+        // a jump back to an earlier block closes a loop over everything in between
+        this.loopDepth = new int[n + 1];
+        for (int b = 0; b < this.cfg.size(); b++) {
+            for (int s : this.cfg.getSuccessors(b)) {
+                if (this.cfg.getStart(s) <= this.cfg.getEnd(b)) {
+                    this.loopDepth[this.cfg.getStart(s)]++;
+                    this.loopDepth[this.cfg.getEnd(b) + 1]--;
+                }
+            }
+        }
+        for (int i = 1; i <= n; i++) this.loopDepth[i] += this.loopDepth[i - 1];
+
+        // the returned identifier is read after the last block
+        SparseBitSet exit = new SparseBitSet();
+        exit.set(returned.id);
+        this.liveness = new Liveness<>(this.cfg, token -> this.symbols.id((Identifier) token), exit, this.byId.size());
+
+        for (int b = 0; b < this.cfg.size(); b++) {
+            SparseBitSet liveIn = this.liveness.getLiveIn(b);
+            SparseBitSet liveOut = this.liveness.getLiveOut(b);
+            for (int id = liveIn.nextSetBit(0); id >= 0; id = liveIn.nextSetBit(id + 1)) {
+                this.byId.get(id).cover(this.cfg.getStart(b));
+            }
+            for (int id = liveOut.nextSetBit(0); id >= 0; id = liveOut.nextSetBit(id + 1)) {
+                this.byId.get(id).cover(this.cfg.getEnd(b));
+            }
+        }
+
+        for (Interval interval : this.byId) {
+            int from = Arrays.binarySearch(this.callPositions, interval.start + 1);
+            int to = Arrays.binarySearch(this.callPositions, interval.end);
+            from = from < 0 ? -from - 1 : from;
+            to = to < 0 ? -to - 1 : to;
+            interval.callsCrossed = Math.max(0, to - from);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package RegAlloc;
+
+import java.util.HashMap;
+
+import IR.token.Register;
+
+/**
+ * The Sparrow-V registers, the same names IR.registers.Registers.riscVregs holds,
+ * as a dense enumeration so allocation state can live in arrays and EnumSets.
+ * Each constant keeps one shared IR token for the instructions it is written into.
+ */
+public enum Reg {
+    T0, T1, T2, T3, T4, T5,
+    S1, S2, S3, S4, S5, S6, S7, S8, S9, S10, S11,
+    A2, A3, A4, A5, A6, A7;
+
+    private static final Reg[] VALUES = values();
+    private static final HashMap<String, Reg> BY_NAME = new HashMap<>();
+    static {
+        for (Reg reg : VALUES) BY_NAME.put(reg.text, reg);
+    }
+
+    private final String text = this.name().toLowerCase();
+    private final Register token = new Register(this.text);
+
+    public Register token() {
+        return this.token;
+    }
+
+    // s registers survive calls; t and a registers have to be saved around them
+    public boolean isCalleeSaved() {
+        return this.text.charAt(0) == 's';
+    }
+
+    public boolean isArgument() {
+        return this.text.charAt(0) == 'a';
+    }
+
+    // register that carries argument k (0-based) of a call, for k below 6
+    public static Reg argument(int k) {
+        return VALUES[A2.ordinal() + k];
+    }
+
+    // null when the name is not a register
+    public static Reg of(String name) {
+        return BY_NAME.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+}
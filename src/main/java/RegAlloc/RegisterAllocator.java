@@ -0,0 +1,17 @@
+package RegAlloc;
+
+import java.util.List;
+
+/**
+ * Maps the identifiers of one function onto registers, spilling what does not fit.
+ */
+public interface RegisterAllocator {
+
+    // t0-t2 stay free as scratch registers for SparrowVLowering
+    List<Reg> REGISTERS = List.of(
+        Reg.T3, Reg.T4, Reg.T5,
+        Reg.S1, Reg.S2, Reg.S3, Reg.S4, Reg.S5, Reg.S6, Reg.S7, Reg.S8, Reg.S9, Reg.S10, Reg.S11,
+        Reg.A2, Reg.A3, Reg.A4, Reg.A5, Reg.A6, Reg.A7);
+
+    Allocation allocate(LiveIntervals liveness);
+}
@@ -0,0 +1,352 @@
+package RegAlloc;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import Flow.SparseBitSet;
+import IR.token.FunctionName;
+import IR.token.Identifier;
+import IR.token.Register;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Store;
+import sparrow.Subtract;
+import sparrowv.Move_Id_Reg;
+import sparrowv.Move_Reg_Id;
+import sparrowv.Move_Reg_Reg;
+
+/**
+ * Rewrites one Sparrow function into Sparrow-V using an Allocation.
+ * <p>
+ * Conventions: the first six arguments travel in a2-a7 and the rest as stack
+ * identifiers; t0-t2 are scratch; t and a registers are caller-saved and s
+ * registers callee-saved, each through a stack_save_ identifier.
+ */
+public class SparrowVLowering {
+    private static final Register T0 = Reg.T0.token();
+    private static final Register T1 = Reg.T1.token();
+    private static final Register T2 = Reg.T2.token();
+
+    private final Allocation allocation;
+    private final LiveIntervals liveness;
+    private final List<sparrowv.Instruction> out = new ArrayList<>();
+
+    private final CallClobbers clobbers;
+    private final List<CallSite> callSites = new ArrayList<>();
+
+    /**
+     * Save and restore moves emitted around one call.
+     */
+    public static class CallSite {
+        public final int position;
+        public final String callee;
+        public final int saves;
+        public final int restores;
+
+        CallSite(int position, String callee, int saves, int restores) {
+            this.position = position;
+            this.callee = callee;
+            this.saves = saves;
+            this.restores = restores;
+        }
+    }
+
+    public SparrowVLowering(Allocation allocation) {
+        this(allocation, null);
+    }
+
+    /**
+     * With clobbers, a call only restores registers its callee may overwrite;
+     * without, every caller-saved register live after the call is restored.
+     */
+    public SparrowVLowering(Allocation allocation, CallClobbers clobbers) {
+        this.allocation = allocation;
+        this.liveness = allocation.getLiveness();
+        this.clobbers = clobbers;
+    }
+
+    public List<CallSite> getCallSites() {
+        return this.callSites;
+    }
+
+    private static Identifier id(String name) {
+        return new Identifier(name);
+    }
+
+    private static Identifier saveSlot(Reg register) {
+        return id("stack_save_" + register);
+    }
+
+    private Identifier slot(Identifier id) {
+        return id(Allocation.stackName(id.toString()));
+    }
+
+    private Register read(Identifier id, Register scratch) {
+        Reg register = this.allocation.registerOf(id);
+        if (register != null) return register.token();
+        this.out.add(new Move_Reg_Id(scratch, slot(id)));
+        return scratch;
+    }
+
+    private Register target(Identifier id) {
+        Reg register = this.allocation.registerOf(id);
+        return register != null ? register.token() : T0;
+    }
+
+    private void write(Identifier id, Register value) {
+        if (this.allocation.registerOf(id) == null) {
+            this.out.add(new Move_Id_Reg(slot(id), value));
+        }
+    }
+
+    public sparrowv.FunctionDecl lower() {
+        FunctionDecl function = this.liveness.getFunction();
+        boolean isMain = function.functionName.toString().equals("Main");
+
+        EnumSet<Reg> calleeSaved = EnumSet.noneOf(Reg.class);
+        for (Interval interval : this.liveness.getIntervals()) {
+            Reg register = this.allocation.registerOf(interval);
+            if (register != null && register.isCalleeSaved()) calleeSaved.add(register);
+        }
+        if (!isMain) {
+            for (Reg register : calleeSaved) {
+                this.out.add(new Move_Id_Reg(saveSlot(register), register.token()));
+            }
+        }
+
+        List<Identifier> formals = new ArrayList<>();
+        List<Identifier> params = function.formalParameters;
+        List<Integer> shuffled = new ArrayList<>();
+        for (int i = 0; i < params.size(); i++) {
+            Identifier param = params.get(i);
+            Reg register = this.allocation.registerOf(param);
+            if (i >= 6) {
+                formals.add(slot(param));
+                if (register != null) this.out.add(new Move_Reg_Id(register.token(), slot(param)));
+                continue;
+            }
+            Reg incoming = Reg.argument(i);
+            if (register == null) {
+                this.out.add(new Move_Id_Reg(slot(param), incoming.token()));
+            } else if (register != incoming) {
+                // park it first so moving between a registers cannot clobber another parameter
+                this.out.add(new Move_Id_Reg(id("stack_param_" + i), incoming.token()));
+                shuffled.add(i);
+            }
+        }
+        for (int i : shuffled) {
+            this.out.add(new Move_Reg_Id(this.allocation.registerOf(params.get(i)).token(), id("stack_param_" + i)));
+        }
+
+        List<Instruction> code = this.liveness.getCode();
+        for (int i = 0; i < code.size(); i++) {
+            this.lower(i, code.get(i));
+        }
+
+        Identifier returned = function.block.return_id;
+        Reg register = this.allocation.registerOf(returned);
+        if (register != null) this.out.add(new Move_Id_Reg(slot(returned), register.token()));
+        if (!isMain) {
+            for (Reg saved : calleeSaved) {
+                this.out.add(new Move_Reg_Id(saved.token(), saveSlot(saved)));
+            }
+        }
+
+        return new sparrowv.FunctionDecl(function.functionName, formals, new sparrowv.Block(this.out, slot(returned)));
+    }
+
+    private void lower(int position, Instruction instr) {
+        if (instr instanceof LabelInstr) {
+            this.out.add(new sparrowv.LabelInstr(((LabelInstr) instr).label));
+        } else if (instr instanceof Move_Id_Integer) {
+            Move_Id_Integer move = (Move_Id_Integer) instr;
+            Register lhs = target(move.lhs);
+            this.out.add(new sparrowv.Move_Reg_Integer(lhs, move.rhs));
+            write(move.lhs, lhs);
+        } else if (instr instanceof Move_Id_FuncName) {
+            Move_Id_FuncName move = (Move_Id_FuncName) instr;
+            Register lhs = target(move.lhs);
+            this.out.add(new sparrowv.Move_Reg_FuncName(lhs, move.rhs));
+            write(move.lhs, lhs);
+        } else if (instr instanceof Add) {
+            Add add = (Add) instr;
+            Register arg1 = read(add.arg1, T1);
+            Register arg2 = read(add.arg2, T2);
+            Register lhs = target(add.lhs);
+            this.out.add(new sparrowv.Add(lhs, arg1, arg2));
+            write(add.lhs, lhs);
+        } else if (instr instanceof Subtract) {
+            Subtract subtract = (Subtract) instr;
+            Register arg1 = read(subtract.arg1, T1);
+            Register arg2 = read(subtract.arg2, T2);
+            Register lhs = target(subtract.lhs);
+            this.out.add(new sparrowv.Subtract(lhs, arg1, arg2));
+            write(subtract.lhs, lhs);
+        } else if (instr instanceof Multiply) {
+            Multiply multiply = (Multiply) instr;
+            Register arg1 = read(multiply.arg1, T1);
+            Register arg2 = read(multiply.arg2, T2);
+            Register lhs = target(multiply.lhs);
+            this.out.add(new sparrowv.Multiply(lhs, arg1, arg2));
+            write(multiply.lhs, lhs);
+        } else if (instr instanceof LessThan) {
+            LessThan lessThan = (LessThan) instr;
+            Register arg1 = read(lessThan.arg1, T1);
+            Register arg2 = read(lessThan.arg2, T2);
+            Register lhs = target(lessThan.lhs);
+            this.out.add(new sparrowv.LessThan(lhs, arg1, arg2));
+            write(lessThan.lhs, lhs);
+        } else if (instr instanceof Load) {
+            Load load = (Load) instr;
+            Register base = read(load.base, T1);
+            Register lhs = target(load.lhs);
+            this.out.add(new sparrowv.Load(lhs, base, load.offset));
+            write(load.lhs, lhs);
+        } else if (instr instanceof Store) {
+            Store store = (Store) instr;
+            Register base = read(store.base, T1);
+            Register rhs = read(store.rhs, T2);
+            this.out.add(new sparrowv.Store(base, store.offset, rhs));
+        } else if (instr instanceof Move_Id_Id) {
+            this.lowerMove((Move_Id_Id) instr);
+        } else if (instr instanceof Alloc) {
+            Alloc alloc = (Alloc) instr;
+            Register size = read(alloc.size, T1);
+            Register lhs = target(alloc.lhs);
+            this.out.add(new sparrowv.Alloc(lhs, size));
+            write(alloc.lhs, lhs);
+        } else if (instr instanceof Print) {
+            this.out.add(new sparrowv.Print(read(((Print) instr).content, T1)));
+        } else if (instr instanceof ErrorMessage) {
+            this.out.add(new sparrowv.ErrorMessage(((ErrorMessage) instr).msg));
+        } else if (instr instanceof Goto) {
+            this.out.add(new sparrowv.Goto(((Goto) instr).label));
+        } else if (instr instanceof IfGoto) {
+            IfGoto ifGoto = (IfGoto) instr;
+            this.out.add(new sparrowv.IfGoto(read(ifGoto.condition, T1), ifGoto.label));
+        } else if (instr instanceof Call) {
+            this.lowerCall(position, (Call) instr);
+        } else {
+            throw new IllegalArgumentException("Unknown Sparrow instruction: " + instr);
+        }
+    }
+
+    private void lowerMove(Move_Id_Id move) {
+        Reg lhs = this.allocation.registerOf(move.lhs);
+        Reg rhs = this.allocation.registerOf(move.rhs);
+        if (lhs != null && rhs != null) {
+            if (lhs != rhs) this.out.add(new Move_Reg_Reg(lhs.token(), rhs.token()));
+        } else if (lhs != null) {
+            this.out.add(new Move_Reg_Id(lhs.token(), slot(move.rhs)));
+        } else if (rhs != null) {
+            this.out.add(new Move_Id_Reg(slot(move.lhs), rhs.token()));
+        } else {
+            this.out.add(new Move_Reg_Id(T0, slot(move.rhs)));
+            this.out.add(new Move_Id_Reg(slot(move.lhs), T0));
+        }
+    }
+
+    // caller-saved registers holding a value still needed after the call at position that the call may overwrite
+    private EnumSet<Reg> liveAcross(int position, Call call, FunctionName callee) {
+        Set<Reg> clobbered = this.clobbers == null ? CallClobbers.ALL : this.clobbers.of(callee);
+        Set<Reg> arguments = CallClobbers.argumentRegisters(call);
+        SparseBitSet live = this.liveness.getLiveAfter(position);
+        live.clear(this.liveness.get(call.lhs).id);
+
+        EnumSet<Reg> registers = EnumSet.noneOf(Reg.class);
+        for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+            Reg register = this.allocation.registerOf(this.liveness.get(id));
+            if (register != null && !register.isCalleeSaved()
+                    && (clobbered.contains(register) || arguments.contains(register))) {
+                registers.add(register);
+            }
+        }
+        return registers;
+    }
+
+    private void lowerCall(int position, Call call) {
+        FunctionName target = this.liveness.getCallee(position);
+        EnumSet<Reg> restore = liveAcross(position, call, target);
+        EnumSet<Reg> saved = EnumSet.copyOf(restore);
+
+        // a registers feeding the call are read back from their save slot once a2-a7 start changing
+        List<Identifier> inputs = new ArrayList<>(call.args.subList(0, Math.min(6, call.args.size())));
+        inputs.add(call.callee);
+        for (Identifier input : inputs) {
+            Reg register = this.allocation.registerOf(input);
+            if (register != null && register.isArgument()) saved.add(register);
+        }
+        for (Reg register : saved) {
+            this.out.add(new Move_Id_Reg(saveSlot(register), register.token()));
+        }
+
+        List<Identifier> extra = new ArrayList<>();
+        for (int k = 6; k < call.args.size(); k++) {
+            Identifier arg = call.args.get(k);
+            Reg register = this.allocation.registerOf(arg);
+            if (register == null) {
+                extra.add(slot(arg));
+            } else {
+                Identifier passed = id("stack_arg_" + k);
+                this.out.add(new Move_Id_Reg(passed, register.token()));
+                extra.add(passed);
+            }
+        }
+
+        for (int k = 0; k < 6 && k < call.args.size(); k++) {
+            Identifier arg = call.args.get(k);
+            Reg destination = Reg.argument(k);
+            Reg register = this.allocation.registerOf(arg);
+            if (register == null) {
+                this.out.add(new Move_Reg_Id(destination.token(), slot(arg)));
+            } else if (register.isArgument()) {
+                if (register != destination) {
+                    this.out.add(new Move_Reg_Id(destination.token(), saveSlot(register)));
+                }
+            } else {
+                this.out.add(new Move_Reg_Reg(destination.token(), register.token()));
+            }
+        }
+
+        Register callee;
+        Reg calleeRegister = this.allocation.registerOf(call.callee);
+        if (calleeRegister == null) {
+            callee = T0;
+            this.out.add(new Move_Reg_Id(T0, slot(call.callee)));
+        } else if (calleeRegister.isArgument()) {
+            callee = T0;
+            this.out.add(new Move_Reg_Id(T0, saveSlot(calleeRegister)));
+        } else {
+            callee = calleeRegister.token();
+        }
+
+        this.out.add(new sparrowv.Call(T0, callee, extra));
+        for (Reg register : restore) {
+            this.out.add(new Move_Reg_Id(register.token(), saveSlot(register)));
+        }
+        this.callSites.add(new CallSite(position, target == null ? null : target.name, saved.size(), restore.size()));
+
+        Reg lhs = this.allocation.registerOf(call.lhs);
+        if (lhs != null) {
+            this.out.add(new Move_Reg_Reg(lhs.token(), T0));
+        } else {
+            this.out.add(new Move_Id_Reg(slot(call.lhs), T0));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+
+import Interp.SparrowInterpreter;
+
+
+
+public class RunSparrow {
+
+    private static final int TIER_THRESHOLD = 1000;
+
+    public static void main(String [] args) throws InterruptedException {
+        boolean report = false;
+        int threshold = -1;
+        for (String arg : args){
+            if (arg.equals("--report")){
+                report = true;
+            } else if (arg.equals("--jit")){
+                threshold = 0;
+            } else if (arg.equals("--tiered")){
+                threshold = TIER_THRESHOLD;
+            } else if (arg.startsWith("--tiered=")){
+                threshold = Integer.parseInt(arg.substring("--tiered=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        boolean printReport = report;
+        int compileThreshold = threshold;
+        // compiled functions call each other on the Java stack, so give deep recursion room
+        Thread runner = new Thread(null, () -> run(printReport, compileThreshold), "sparrow", 1L << 30);
+        runner.start();
+        runner.join();
+    }
+
+    private static void run(boolean report, int threshold){
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out, 1 << 16), false);
+        try{
+            SparrowInterpreter interpreter = new SparrowInterpreter(S2SV.parse(System.in));
+            if (threshold >= 0) interpreter.enableCompilation(threshold);
+            interpreter.run(out);
+            if (report) interpreter.printReport(System.err);
+        } catch (Exception e){
+            out.println(e);
+        }
+        out.flush();
+    }
+}
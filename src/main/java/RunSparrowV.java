@@ -0,0 +1,42 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+
+import IR.ParseException;
+import IR.SparrowLoader;
+import Interp.SparrowVInterpreter;
+
+
+
+public class RunSparrowV {
+
+    public static void main(String [] args){
+        boolean report = false;
+        boolean checkCalleeSaved = false;
+        for (String arg : args){
+            if (arg.equals("--report")){
+                report = true;
+            } else if (arg.equals("--check-callee-saved")){
+                checkCalleeSaved = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out, 1 << 16), false);
+        try{
+            SparrowVInterpreter interpreter = new SparrowVInterpreter(parse(System.in));
+            interpreter.checkCalleeSaved(checkCalleeSaved);
+            interpreter.run(out);
+            if (report) interpreter.printReport(System.err);
+        } catch (Exception e){
+            out.println(e);
+        }
+        out.flush();
+    }
+
+    public static sparrowv.Program parse(InputStream in) throws ParseException, IOException {
+        return SparrowLoader.loadSparrowV(in);
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import IR.ParseException;
+import IR.SparrowLoader;
+import IR.SparrowVPrinter;
+import RegAlloc.Allocation;
+import RegAlloc.CallClobbers;
+import RegAlloc.GraphColoringAllocator;
+import RegAlloc.LinearScanAllocator;
+import RegAlloc.LiveIntervals;
+import RegAlloc.RegisterAllocator;
+import RegAlloc.SparrowVLowering;
+
+
+
+public class S2SV {
+
+    public static void main(String [] args){
+        RegisterAllocator allocator = new LinearScanAllocator();
+        boolean report = false;
+        for (String arg : args){
+            switch (arg) {
+                case "--allocator=linear":
+                    allocator = new LinearScanAllocator();
+                    break;
+                case "--allocator=coloring":
+                    allocator = new GraphColoringAllocator();
+                    break;
+                case "--report":
+                    report = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        try{
+            sparrow.Program program = parse(System.in);
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+            SparrowVPrinter.print(translate(program, allocator, report ? System.err : null), out);
+            out.flush();
+        } catch (Exception e){
+            System.out.println(e);
+        }
+    }
+
+    public static sparrow.Program parse(InputStream in) throws ParseException, IOException {
+        return SparrowLoader.loadSparrow(in);
+    }
+
+    public static sparrowv.Program translate(sparrow.Program program, RegisterAllocator allocator){
+        return translate(program, allocator, null);
+    }
+
+    /**
+     * Allocates registers function by function and lowers the program to Sparrow-V.
+     * Every function is allocated before any is lowered so calls know which
+     * registers their callee overwrites. When report is given, both allocators run
+     * on every function and their spills, removed moves and allocation time are
+     * printed side by side, followed by the saves and restores of each call.
+     */
+    public static sparrowv.Program translate(sparrow.Program program, RegisterAllocator allocator, PrintStream report){
+        List<Allocation> allocations = new ArrayList<>();
+        for (sparrow.FunctionDecl function : program.funDecls){
+            allocations.add(allocator.allocate(new LiveIntervals(function)));
+        }
+        CallClobbers clobbers = new CallClobbers(allocations);
+
+        List<sparrowv.FunctionDecl> functions = new ArrayList<>();
+        if (report != null){
+            report.printf("%-32s %6s | %-35s | %s%n", "function", "ids", "linear scan", "graph coloring");
+        }
+        for (Allocation allocation : allocations){
+            SparrowVLowering lowering = new SparrowVLowering(allocation, clobbers);
+            functions.add(lowering.lower());
+            if (report != null){
+                LiveIntervals liveness = allocation.getLiveness();
+                Allocation linear = new LinearScanAllocator().allocate(liveness);
+                Allocation coloring = new GraphColoringAllocator().allocate(liveness);
+                report.printf("%-32s %6d | %s | %s%n", liveness.getFunction().functionName, liveness.size(),
+                    summary(linear), summary(coloring));
+                for (SparrowVLowering.CallSite site : lowering.getCallSites()){
+                    report.printf("    call at %-5d %-24s %3d saved %3d restored%n", site.position,
+                        site.callee == null ? "(indirect)" : site.callee, site.saves, site.restores);
+                }
+            }
+        }
+        return new sparrowv.Program(functions);
+    }
+
+    private static String summary(Allocation allocation){
+        return String.format("%5d spills %5d moves %8.3f ms",
+            allocation.getSpilled(), allocation.getMovesRemoved(), allocation.getNanos() / 1e6);
+    }
+}
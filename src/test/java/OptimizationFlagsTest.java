@@ -0,0 +1,89 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import Env.TranslationOptions;
+import IR.SparrowLoader;
+import Interp.SparrowInterpreter;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Translates every hw3 and hw37 case with each optimization flag, and with all
+ * of them at once, runs the Sparrow and compares what it prints with the case's
+ * .out file, or with the plain translation where a case has none.
+ */
+public class OptimizationFlagsTest {
+    private static final String[][] FLAG_SETS = {
+        { "--shared-vtables" },
+        { "--bounds-check-elim" },
+        { "--null-check-elim" },
+        { "--devirtualize" },
+        { "--inline=8" },
+        { "--devirtualize", "--inline=8" },
+        { "--branch-conditions" },
+        { "--shared-error-blocks" },
+        { "--load-elim" },
+        { "--peephole" },
+        { "--shared-vtables", "--bounds-check-elim", "--null-check-elim", "--devirtualize",
+          "--branch-conditions", "--shared-error-blocks", "--load-elim", "--inline=8", "--peephole" },
+    };
+
+    private static List<Path> cases(String dir) throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("testcases", dir))){
+            return files.filter(p -> p.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    // what the interpreter prints for the translation of input
+    private static String run(Path input, String[] flags) throws Exception {
+        List<String> lines;
+        try (InputStream in = Files.newInputStream(input)){
+            lines = J2S.compile(in, TranslationOptions.fromArgs(flags));
+        }
+        byte[] sparrow = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream print = new PrintStream(out, false, "UTF-8");
+        new SparrowInterpreter(SparrowLoader.loadSparrow(sparrow)).run(print);
+        return out.toString("UTF-8");
+    }
+
+    private static void check(Path input, String expected, List<String> failures) throws Exception {
+        for (String[] flags : FLAG_SETS){
+            String actual = run(input, flags);
+            if (!actual.equals(expected)){
+                failures.add(input + " " + String.join(" ", flags));
+            }
+        }
+    }
+
+    @Test public void hw3CasesMatchTheirOutFiles() throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (Path input : cases("hw3")){
+            Path out = Paths.get(input + ".out");
+            if (!Files.exists(out)) continue;
+            String expected = new String(Files.readAllBytes(out), StandardCharsets.UTF_8);
+            assertEquals(input.toString(), expected, run(input, new String[0]));
+            check(input, expected, failures);
+        }
+        assertEquals(new ArrayList<String>(), failures);
+    }
+
+    @Test public void hw37CasesMatchThePlainTranslation() throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (Path input : cases("hw37")){
+            if (Files.size(input) == 0) continue;
+            check(input, run(input, new String[0]), failures);
+        }
+        assertEquals(new ArrayList<String>(), failures);
+    }
+}
@@ -0,0 +1,34 @@
+class Main {
+	public static void main(String[] a){
+		System.out.println(new A().run());
+	}
+}
+
+class A {
+	public int run() {
+		Shape s;
+		int t;
+		s = new Shape();
+		System.out.println(s.area(3));
+		s = new Square();
+		System.out.println(s.area(3));
+		t = this.measure(new Square());
+		return t;
+	}
+
+	public int measure(Shape s) {
+		return s.area(4);
+	}
+}
+
+class Shape {
+	public int area(int n) {
+		return 0;
+	}
+}
+
+class Square extends Shape {
+	public int area(int n) {
+		return n * n;
+	}
+}
@@ -0,0 +1,46 @@
+class Main {
+	public static void main(String[] a){
+		System.out.println(new A().run(4));
+	}
+}
+
+class A {
+	int[] data;
+	int[] other;
+	int total;
+
+	public int run(int n) {
+		int i;
+		int t;
+		int[] local;
+		data = new int[n];
+		other = data;
+		total = 0;
+		i = 0;
+		while (i < (data.length)) {
+			other[i] = i + 5;
+			t = data[i];
+			total = total + t;
+			local = data;
+			local[i] = t * 2;
+			t = other[i];
+			System.out.println(t);
+			i = i + 1;
+		}
+		System.out.println(total);
+		i = 0;
+		while (i < (other.length)) {
+			t = this.grow();
+			other[i] = t;
+			i = i + 1;
+		}
+		System.out.println(data.length);
+		System.out.println(other[3]);
+		return data[3];
+	}
+
+	public int grow() {
+		data = new int[6];
+		return 7;
+	}
+}
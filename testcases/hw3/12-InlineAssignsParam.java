@@ -0,0 +1,28 @@
+class Main {
+	public static void main(String[] a){
+		System.out.println(new A().run(5));
+	}
+}
+
+class A {
+	int base;
+
+	public int run(int n) {
+		int x;
+		int y;
+		x = n;
+		base = 3;
+		y = this.shift(x);
+		System.out.println(x);
+		System.out.println(y);
+		y = this.shift(y);
+		System.out.println(y);
+		return x + y;
+	}
+
+	public int shift(int v) {
+		v = v + (base);
+		v = v * 2;
+		return v;
+	}
+}
@@ -0,0 +1,29 @@
+class Main {
+	public static void main(String[] a){
+		System.out.println(new A().run(4));
+	}
+}
+
+class A {
+	public int run(int n) {
+		int[] a;
+		int i;
+		int j;
+		int s;
+		a = new int[n];
+		i = 0;
+		while (i < (a.length)) {
+			a[i] = i + 1;
+			i = i + 1;
+		}
+		s = 0;
+		i = 0;
+		while (i < (a.length)) {
+			j = i + 1;
+			s = s + (a[j]);
+			System.out.println(s);
+			i = i + 1;
+		}
+		return s;
+	}
+}
@@ -0,0 +1,33 @@
+class Main {
+	public static void main(String[] a){
+		System.out.println(new A().run(3));
+	}
+}
+
+class A {
+	public int run(int n) {
+		int x;
+		int y;
+		int i;
+		x = 0 - 7;
+		y = x;
+		System.out.println(y * 3);
+		i = 0;
+		while (i < n) {
+			if (i < 1) {
+				y = 5 - 9;
+			} else {
+				y = x;
+				x = y + 2;
+			}
+			System.out.println(y);
+			System.out.println(x);
+			i = i + 1;
+		}
+		x = 1;
+		y = x;
+		x = 2;
+		System.out.println(y);
+		return (0 - 2) * (0 - 3);
+	}
+}
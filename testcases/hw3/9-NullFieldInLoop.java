@@ -0,0 +1,31 @@
+class Main {
+	public static void main(String[] a){
+		System.out.println(new A().run());
+	}
+}
+
+class A {
+	B cur;
+	B none;
+
+	public int run() {
+		int i;
+		int s;
+		cur = new B();
+		i = 0;
+		s = 0;
+		while (i < 3) {
+			s = s + (cur.get(i));
+			System.out.println(s);
+			cur = none;
+			i = i + 1;
+		}
+		return s;
+	}
+}
+
+class B {
+	public int get(int i) {
+		return i + 10;
+	}
+}